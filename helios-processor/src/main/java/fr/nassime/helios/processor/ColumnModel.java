@@ -0,0 +1,79 @@
+package fr.nassime.helios.processor;
+
+class ColumnModel {
+    enum ValueKind {
+        PRIMITIVE,
+        BOXED,
+        STRING,
+        BIG_DECIMAL,
+        BYTES,
+        ENUM,
+        JDBC_OBJECT,
+        OTHER
+    }
+
+    private final String fieldName;
+    private final String columnName;
+    private final String typeName;
+    private final ValueKind kind;
+    private final boolean id;
+    private final boolean insertable;
+    private final boolean updatable;
+    private final String getter;
+    private final String setter;
+
+    ColumnModel(String fieldName, String columnName, String typeName, ValueKind kind, boolean id,
+                boolean insertable, boolean updatable, String getter, String setter) {
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+        this.typeName = typeName;
+        this.kind = kind;
+        this.id = id;
+        this.insertable = insertable;
+        this.updatable = updatable;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    String getFieldName() {
+        return fieldName;
+    }
+
+    String getColumnName() {
+        return columnName;
+    }
+
+    String getTypeName() {
+        return typeName;
+    }
+
+    ValueKind getKind() {
+        return kind;
+    }
+
+    boolean isId() {
+        return id;
+    }
+
+    boolean isInsertable() {
+        return insertable;
+    }
+
+    boolean isUpdatable() {
+        return updatable;
+    }
+
+    /**
+     * @return the accessor method name, or {@code null} when the field is read directly
+     */
+    String getGetter() {
+        return getter;
+    }
+
+    /**
+     * @return the mutator method name, or {@code null} when the field is written directly
+     */
+    String getSetter() {
+        return setter;
+    }
+}
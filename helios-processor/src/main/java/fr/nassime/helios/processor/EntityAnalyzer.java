@@ -0,0 +1,290 @@
+package fr.nassime.helios.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class EntityAnalyzer {
+    private static final String COLUMN_ANNOTATION = "fr.nassime.helios.annotation.Column";
+    private static final String ID_ANNOTATION = "fr.nassime.helios.annotation.Id";
+    private static final Set<String> RELATION_ANNOTATIONS = Set.of(
+            "fr.nassime.helios.annotation.OneToOne", "fr.nassime.helios.annotation.OneToMany",
+            "fr.nassime.helios.annotation.ManyToOne", "fr.nassime.helios.annotation.ManyToMany");
+
+    private static final Set<String> LOMBOK_GETTERS = Set.of("lombok.Data", "lombok.Getter", "lombok.Value");
+    private static final Set<String> LOMBOK_SETTERS = Set.of("lombok.Data", "lombok.Setter");
+
+    private static final Set<String> BOXED_TYPES = Set.of(
+            "java.lang.Long", "java.lang.Integer", "java.lang.Short", "java.lang.Byte",
+            "java.lang.Double", "java.lang.Float", "java.lang.Boolean");
+
+    private static final Set<String> JDBC_OBJECT_TYPES = Set.of(
+            "java.time.LocalDateTime", "java.time.LocalDate", "java.time.LocalTime",
+            "java.time.OffsetDateTime", "java.util.UUID");
+
+    private final Elements elements;
+    private final Types types;
+
+    EntityAnalyzer(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    EntityModel analyze(TypeElement entity) throws UnsupportedEntityException {
+        checkInstantiable(entity);
+
+        List<ColumnModel> columns = new ArrayList<>();
+        ColumnModel idColumn = null;
+        List<String> relationFields = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            if (hasAnyAnnotation(field, RELATION_ANNOTATIONS)) {
+                relationFields.add(field.getSimpleName().toString());
+            }
+
+            AnnotationMirror column = findAnnotation(field, COLUMN_ANNOTATION);
+            AnnotationMirror id = findAnnotation(field, ID_ANNOTATION);
+            if (column == null && id == null) {
+                continue;
+            }
+
+            ColumnModel model = analyzeColumn(entity, field, column, id != null);
+            columns.add(model);
+            if (id != null && idColumn == null) {
+                idColumn = model;
+            }
+        }
+
+        if (idColumn == null) {
+            throw new UnsupportedEntityException("no @Id field");
+        }
+
+        PackageElement packageElement = elements.getPackageOf(entity);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+
+        return new EntityModel(packageName, entity.getQualifiedName().toString(),
+                mapperSimpleName(entity), tableName(entity), idColumn, columns, relationFields);
+    }
+
+    private void checkInstantiable(TypeElement entity) throws UnsupportedEntityException {
+        if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedEntityException("abstract class");
+        }
+        if (!entity.getTypeParameters().isEmpty()) {
+            throw new UnsupportedEntityException("generic class");
+        }
+
+        for (Element current = entity; current.getKind().isClass(); current = current.getEnclosingElement()) {
+            TypeElement type = (TypeElement) current;
+            if (EntityMapperProcessor.isPrivate(type)) {
+                throw new UnsupportedEntityException("private class");
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                throw new UnsupportedEntityException("inner class");
+            }
+            if (type.getNestingKind() != NestingKind.MEMBER) {
+                break;
+            }
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(entity.getEnclosedElements());
+        boolean hasNoArgConstructor = constructors.stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !EntityMapperProcessor.isPrivate(constructor));
+        boolean lombokNoArgs = hasAnnotation(entity, "lombok.NoArgsConstructor") || hasAnnotation(entity, "lombok.Data")
+                && constructors.isEmpty();
+        if (!hasNoArgConstructor && !lombokNoArgs && !constructors.isEmpty()) {
+            throw new UnsupportedEntityException("no accessible no-arg constructor");
+        }
+    }
+
+    private ColumnModel analyzeColumn(TypeElement entity, VariableElement field, AnnotationMirror column, boolean id)
+            throws UnsupportedEntityException {
+        String fieldName = field.getSimpleName().toString();
+        if (field.getModifiers().contains(Modifier.STATIC)) {
+            throw new UnsupportedEntityException("static column field " + fieldName);
+        }
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            throw new UnsupportedEntityException("final column field " + fieldName);
+        }
+
+        String columnName = fieldName;
+        boolean insertable = true;
+        boolean updatable = true;
+        ColumnModel.ValueKind kind = kindOf(field.asType());
+        if (column != null) {
+            String name = (String) annotationValue(column, "name");
+            if (!name.isEmpty()) {
+                columnName = name;
+            }
+            insertable = (Boolean) annotationValue(column, "insertable");
+            updatable = (Boolean) annotationValue(column, "updatable");
+            if (kind == ColumnModel.ValueKind.STRING && (Boolean) annotationValue(column, "lowCardinality")) {
+                // Le cache de déduplication vit dans le convertisseur de la colonne
+                kind = ColumnModel.ValueKind.OTHER;
+            }
+        }
+
+        TypeMirror type = field.asType();
+        String getter = null;
+        String setter = null;
+        if (EntityMapperProcessor.isPrivate(field)) {
+            getter = findGetter(entity, field);
+            setter = findSetter(entity, field);
+        }
+
+        return new ColumnModel(fieldName, columnName, typeName(type), kind, id,
+                insertable, updatable, getter, setter);
+    }
+
+    private String findGetter(TypeElement entity, VariableElement field) throws UnsupportedEntityException {
+        String capitalized = capitalize(field.getSimpleName().toString());
+        boolean primitiveBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        String getter = (primitiveBoolean ? "is" : "get") + capitalized;
+
+        for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+            if (method.getParameters().isEmpty() && !EntityMapperProcessor.isPrivate(method)
+                    && (method.getSimpleName().contentEquals(getter)
+                    || method.getSimpleName().contentEquals("get" + capitalized))) {
+                return method.getSimpleName().toString();
+            }
+        }
+
+        if (hasAnyAnnotation(entity, LOMBOK_GETTERS) || hasAnyAnnotation(field, LOMBOK_GETTERS)) {
+            return getter;
+        }
+        throw new UnsupportedEntityException("private field " + field.getSimpleName() + " has no getter");
+    }
+
+    private String findSetter(TypeElement entity, VariableElement field) throws UnsupportedEntityException {
+        String setter = "set" + capitalize(field.getSimpleName().toString());
+
+        for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+            if (method.getParameters().size() == 1 && !EntityMapperProcessor.isPrivate(method)
+                    && method.getSimpleName().contentEquals(setter)
+                    && types.isSameType(types.erasure(method.getParameters().get(0).asType()),
+                    types.erasure(field.asType()))) {
+                return setter;
+            }
+        }
+
+        if (hasAnyAnnotation(entity, LOMBOK_SETTERS) || hasAnyAnnotation(field, LOMBOK_SETTERS)) {
+            return setter;
+        }
+        throw new UnsupportedEntityException("private field " + field.getSimpleName() + " has no setter");
+    }
+
+    private ColumnModel.ValueKind kindOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.CHAR) {
+            return ColumnModel.ValueKind.OTHER;
+        } else if (type.getKind().isPrimitive()) {
+            return ColumnModel.ValueKind.PRIMITIVE;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "byte[]".equals(type.toString()) ? ColumnModel.ValueKind.BYTES : ColumnModel.ValueKind.OTHER;
+        }
+
+        String name = typeName(type);
+        if (BOXED_TYPES.contains(name)) {
+            return ColumnModel.ValueKind.BOXED;
+        } else if ("java.lang.String".equals(name)) {
+            return ColumnModel.ValueKind.STRING;
+        } else if ("java.math.BigDecimal".equals(name)) {
+            return ColumnModel.ValueKind.BIG_DECIMAL;
+        } else if (JDBC_OBJECT_TYPES.contains(name)) {
+            return ColumnModel.ValueKind.JDBC_OBJECT;
+        }
+
+        Element element = types.asElement(type);
+        if (element != null && element.getKind() == ElementKind.ENUM) {
+            return ColumnModel.ValueKind.ENUM;
+        }
+        return ColumnModel.ValueKind.OTHER;
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.ARRAY) {
+            return types.erasure(type).toString();
+        }
+        Element element = types.asElement(type);
+        if (element instanceof TypeElement typeElement) {
+            return typeElement.getQualifiedName().toString();
+        }
+        return types.erasure(type).toString();
+    }
+
+    private String tableName(TypeElement entity) {
+        AnnotationMirror table = findAnnotation(entity, EntityMapperProcessor.TABLE_ANNOTATION);
+        String tableName = (String) annotationValue(table, "name");
+        if (tableName.isEmpty()) {
+            tableName = entity.getSimpleName().toString().toLowerCase();
+        }
+
+        String schema = (String) annotationValue(table, "schema");
+        if (!schema.isEmpty()) {
+            tableName = schema + "." + tableName;
+        }
+        return tableName;
+    }
+
+    private String mapperSimpleName(TypeElement entity) {
+        StringBuilder name = new StringBuilder(entity.getSimpleName());
+        Element enclosing = entity.getEnclosingElement();
+        while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append("_HeliosMapper").toString();
+    }
+
+    private Object annotationValue(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                elements.getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalArgumentException("Unknown annotation member " + name);
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element type = annotation.getAnnotationType().asElement();
+            if (type instanceof TypeElement typeElement
+                    && typeElement.getQualifiedName().contentEquals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationType) {
+        return findAnnotation(element, annotationType) != null;
+    }
+
+    private static boolean hasAnyAnnotation(Element element, Set<String> annotationTypes) {
+        return annotationTypes.stream().anyMatch(annotationType -> hasAnnotation(element, annotationType));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
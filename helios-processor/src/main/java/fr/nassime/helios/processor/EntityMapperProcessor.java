@@ -0,0 +1,112 @@
+package fr.nassime.helios.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code GeneratedEntityMapper} implementation for every {@code @Table} class, and
+ * registers them in {@code META-INF/services} so that Helios picks them up instead of reflection.
+ * Entities that cannot be mapped without reflection (private fields without accessors, no no-arg
+ * constructor...) are reported as notes and keep using the reflective path at runtime.
+ */
+@SupportedAnnotationTypes(EntityMapperProcessor.TABLE_ANNOTATION)
+public class EntityMapperProcessor extends AbstractProcessor {
+    static final String TABLE_ANNOTATION = "fr.nassime.helios.annotation.Table";
+    static final String SERVICE_FILE = "META-INF/services/fr.nassime.helios.mapping.GeneratedEntityMapper";
+
+    private final Set<String> generatedMappers = new TreeSet<>();
+    private Filer filer;
+    private Messager messager;
+    private EntityAnalyzer analyzer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+        this.analyzer = new EntityAnalyzer(processingEnv);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement tableAnnotation = processingEnv.getElementUtils().getTypeElement(TABLE_ANNOTATION);
+        if (tableAnnotation != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(tableAnnotation)) {
+                if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !generatedMappers.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    private void generate(TypeElement entity) {
+        EntityModel model;
+        try {
+            model = analyzer.analyze(entity);
+        } catch (UnsupportedEntityException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    "Helios will map " + entity.getQualifiedName() + " by reflection: " + e.getMessage(), entity);
+            return;
+        }
+
+        String qualifiedName = model.getPackageName().isEmpty()
+                ? model.getMapperSimpleName()
+                : model.getPackageName() + "." + model.getMapperSimpleName();
+
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedName, entity);
+            try (Writer writer = file.openWriter()) {
+                writer.write(new MapperWriter(model).write());
+            }
+            generatedMappers.add(qualifiedName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write generated mapper " + qualifiedName + ": " + e.getMessage(), entity);
+        }
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String mapper : generatedMappers) {
+                    writer.write(mapper);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Unable to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    static boolean isPrivate(Element element) {
+        return element.getModifiers().contains(Modifier.PRIVATE);
+    }
+}
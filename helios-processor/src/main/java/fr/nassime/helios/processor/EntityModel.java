@@ -0,0 +1,52 @@
+package fr.nassime.helios.processor;
+
+import java.util.List;
+
+class EntityModel {
+    private final String packageName;
+    private final String entityName;
+    private final String mapperSimpleName;
+    private final String tableName;
+    private final ColumnModel idColumn;
+    private final List<ColumnModel> columns;
+    private final List<String> relationFields;
+
+    EntityModel(String packageName, String entityName, String mapperSimpleName, String tableName,
+                ColumnModel idColumn, List<ColumnModel> columns, List<String> relationFields) {
+        this.packageName = packageName;
+        this.entityName = entityName;
+        this.mapperSimpleName = mapperSimpleName;
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.columns = columns;
+        this.relationFields = relationFields;
+    }
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    String getEntityName() {
+        return entityName;
+    }
+
+    String getMapperSimpleName() {
+        return mapperSimpleName;
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    ColumnModel getIdColumn() {
+        return idColumn;
+    }
+
+    List<ColumnModel> getColumns() {
+        return columns;
+    }
+
+    List<String> getRelationFields() {
+        return relationFields;
+    }
+}
@@ -0,0 +1,208 @@
+package fr.nassime.helios.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class MapperWriter {
+    private final EntityModel model;
+    private final StringBuilder out = new StringBuilder();
+
+    MapperWriter(EntityModel model) {
+        this.model = model;
+    }
+
+    String write() {
+        String entity = model.getEntityName();
+        List<ColumnModel> columns = model.getColumns();
+
+        if (!model.getPackageName().isEmpty()) {
+            line("package " + model.getPackageName() + ";");
+            line("");
+        }
+        line("@javax.annotation.processing.Generated(\"fr.nassime.helios.processor.EntityMapperProcessor\")");
+        line("public final class " + model.getMapperSimpleName()
+                + " implements fr.nassime.helios.mapping.GeneratedEntityMapper<" + entity + "> {");
+
+        List<String> names = new ArrayList<>();
+        List<String> fieldNames = new ArrayList<>();
+        for (ColumnModel column : columns) {
+            names.add(literal(column.getColumnName()));
+            fieldNames.add(literal(column.getFieldName()));
+        }
+        List<String> relationFields = new ArrayList<>();
+        for (String field : model.getRelationFields()) {
+            relationFields.add(literal(field));
+        }
+        line("    private static final String[] COLUMN_NAMES = {" + String.join(", ", names) + "};");
+        line("    private static final String[] FIELD_NAMES = {" + String.join(", ", fieldNames) + "};");
+        line("    private static final String[] RELATION_FIELD_NAMES = {" + String.join(", ", relationFields) + "};");
+        for (ColumnModel column : columns) {
+            // Les enums passent par EnumConverter, qui porte les tables de libellés et d'ordinaux
+            if (column.getKind() == ColumnModel.ValueKind.ENUM || column.getKind() == ColumnModel.ValueKind.OTHER) {
+                line("    private static final fr.nassime.helios.types.TypeConverter<?> " + converter(column)
+                        + " = fr.nassime.helios.types.TypeConverters.forField(" + entity + ".class, "
+                        + literal(column.getFieldName()) + ");");
+            }
+        }
+        line("");
+
+        line("    @Override");
+        line("    public Class<" + entity + "> entityClass() {");
+        line("        return " + entity + ".class;");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String tableName() {");
+        line("        return " + literal(model.getTableName()) + ";");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String idColumnName() {");
+        line("        return " + literal(model.getIdColumn().getColumnName()) + ";");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String[] columnNames() {");
+        line("        return COLUMN_NAMES.clone();");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String[] fieldNames() {");
+        line("        return FIELD_NAMES.clone();");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public String[] relationFieldNames() {");
+        line("        return RELATION_FIELD_NAMES.clone();");
+        line("    }");
+        line("");
+
+        line("    @Override");
+        line("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("    public " + entity + " mapRow(java.sql.ResultSet resultSet, int[] columnIndexes) throws java.sql.SQLException {");
+        line("        " + entity + " entity = new " + entity + "();");
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnModel column = columns.get(i);
+            line("        if (columnIndexes[" + i + "] != 0) {");
+            line("            " + assign(column, read(column, "columnIndexes[" + i + "]")));
+            line("        }");
+        }
+        line("        return entity;");
+        line("    }");
+        line("");
+
+        line("    @Override");
+        line("    public java.util.Map<String, Object> toColumnValues(" + entity + " entity, boolean includeId) {");
+        line("        java.util.Map<String, Object> values = new java.util.LinkedHashMap<>();");
+        for (ColumnModel column : columns) {
+            String condition = includeCondition(column);
+            if (condition == null) {
+                continue;
+            }
+            String put = "values.put(" + literal(column.getColumnName()) + ", " + get(column) + ");";
+            if (condition.isEmpty()) {
+                line("        " + put);
+            } else {
+                line("        if (" + condition + ") {");
+                line("            " + put);
+                line("        }");
+            }
+        }
+        line("        return values;");
+        line("    }");
+        line("");
+
+        ColumnModel id = model.getIdColumn();
+        line("    @Override");
+        line("    public Object getIdValue(" + entity + " entity) {");
+        line("        return " + get(id) + ";");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public void setIdValue(" + entity + " entity, Object idValue) {");
+        line("        " + assign(id, convertId(id)));
+        line("    }");
+
+        line("}");
+        return out.toString();
+    }
+
+    // Mirrors the insertable/updatable rules of EntityMapper.toColumnValues
+    private static String includeCondition(ColumnModel column) {
+        boolean onInsert = !column.isId() && column.isInsertable();
+        boolean onUpdate = column.isUpdatable();
+        if (onInsert && onUpdate) {
+            return "";
+        } else if (onInsert) {
+            return "!includeId";
+        } else if (onUpdate) {
+            return "includeId";
+        }
+        return null;
+    }
+
+    private static String read(ColumnModel column, String index) {
+        String type = column.getTypeName();
+        return switch (column.getKind()) {
+            case PRIMITIVE -> "resultSet.get" + capitalize(type) + "(" + index + ")";
+            case BOXED, JDBC_OBJECT -> "resultSet.getObject(" + index + ", " + type + ".class)";
+            case STRING -> "resultSet.getString(" + index + ")";
+            case BIG_DECIMAL -> "resultSet.getBigDecimal(" + index + ")";
+            case BYTES -> "resultSet.getBytes(" + index + ")";
+            case ENUM, OTHER -> "(" + type + ") " + converter(column) + ".read(resultSet, " + index + ")";
+        };
+    }
+
+    private static String convertId(ColumnModel id) {
+        String type = boxed(id.getTypeName());
+        return switch (type) {
+            case "Long", "java.lang.Long" ->
+                    "(" + type + ") (idValue instanceof Number number ? (Object) number.longValue() : idValue)";
+            case "Integer", "java.lang.Integer" ->
+                    "(" + type + ") (idValue instanceof Number number ? (Object) number.intValue() : idValue)";
+            default -> "(" + type + ") idValue";
+        };
+    }
+
+    private static String get(ColumnModel column) {
+        return column.getGetter() == null
+                ? "entity." + column.getFieldName()
+                : "entity." + column.getGetter() + "()";
+    }
+
+    private static String assign(ColumnModel column, String value) {
+        return column.getSetter() == null
+                ? "entity." + column.getFieldName() + " = " + value + ";"
+                : "entity." + column.getSetter() + "(" + value + ");";
+    }
+
+    private static String converter(ColumnModel column) {
+        return column.getFieldName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_CONVERTER";
+    }
+
+    private static String boxed(String type) {
+        return switch (type) {
+            case "long" -> "Long";
+            case "int" -> "Integer";
+            case "short" -> "Short";
+            case "byte" -> "Byte";
+            case "double" -> "Double";
+            case "float" -> "Float";
+            case "boolean" -> "Boolean";
+            case "char" -> "Character";
+            default -> type;
+        };
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+}
@@ -0,0 +1,7 @@
+package fr.nassime.helios.processor;
+
+class UnsupportedEntityException extends Exception {
+    UnsupportedEntityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package fr.nassime.helios.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public final class BenchmarkData {
+    public static final String[] EMPLOYEE_COLUMNS = {
+            "id", "name", "email", "hire_date", "salary", "status", "department_id"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static Object[][] employeeRows(int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{
+                    (long) i,
+                    "Employee " + i,
+                    "employee" + i + "@helios.dev",
+                    Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0).plusDays(i % 365)),
+                    40_000.0 + i,
+                    BenchmarkEmployee.Status.values()[i % BenchmarkEmployee.Status.values().length].name(),
+                    (long) (i % 20)
+            };
+        }
+        return rows;
+    }
+}
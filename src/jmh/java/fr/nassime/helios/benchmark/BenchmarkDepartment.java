@@ -0,0 +1,35 @@
+package fr.nassime.helios.benchmark;
+
+import fr.nassime.helios.annotation.Column;
+import fr.nassime.helios.annotation.Id;
+import fr.nassime.helios.annotation.OneToMany;
+import fr.nassime.helios.annotation.Table;
+
+import java.util.List;
+
+@Table(name = "bench_departments")
+public class BenchmarkDepartment {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @OneToMany(targetEntity = BenchmarkEmployee.class, mappedBy = "departmentId")
+    private List<BenchmarkEmployee> employees;
+
+    public BenchmarkDepartment() {
+    }
+
+    public BenchmarkDepartment(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public List<BenchmarkEmployee> getEmployees() {
+        return employees;
+    }
+}
@@ -0,0 +1,73 @@
+package fr.nassime.helios.benchmark;
+
+import fr.nassime.helios.annotation.Column;
+import fr.nassime.helios.annotation.Id;
+import fr.nassime.helios.annotation.Table;
+
+import java.time.LocalDateTime;
+
+@Table(name = "bench_employees")
+public class BenchmarkEmployee {
+    public enum Status {
+        ACTIVE,
+        ON_LEAVE,
+        TERMINATED
+    }
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column
+    private String email;
+
+    @Column(name = "hire_date")
+    private LocalDateTime hireDate;
+
+    @Column
+    private Double salary;
+
+    @Column
+    private Status status;
+
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    public BenchmarkEmployee() {
+    }
+
+    public BenchmarkEmployee(Long id, String name, String email, LocalDateTime hireDate, Double salary,
+                             Status status, Long departmentId) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.hireDate = hireDate;
+        this.salary = salary;
+        this.status = status;
+        this.departmentId = departmentId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public static BenchmarkEmployee sample(long index, Long departmentId) {
+        return new BenchmarkEmployee(null, "Employee " + index, "employee" + index + "@helios.dev",
+                LocalDateTime.of(2024, 1, 1, 9, 0).plusDays(index % 365), 40_000.0 + index,
+                Status.values()[(int) (index % Status.values().length)], departmentId);
+    }
+}
@@ -0,0 +1,50 @@
+package fr.nassime.helios.benchmark;
+
+import fr.nassime.helios.mapping.EntityMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    private EntityMapper<BenchmarkEmployee> mapper;
+    private BenchmarkEmployee employee;
+
+    @Setup
+    public void setUp() {
+        mapper = new EntityMapper<>(BenchmarkEmployee.class);
+        employee = BenchmarkEmployee.sample(42, 7L);
+        employee.setId(42L);
+    }
+
+    @Benchmark
+    public EntityMapper<BenchmarkEmployee> createMapper() {
+        return new EntityMapper<>(BenchmarkEmployee.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> toColumnValuesForInsert() {
+        return mapper.toColumnValues(employee, false);
+    }
+
+    @Benchmark
+    public Map<String, Object> toColumnValuesForUpdate() {
+        return mapper.toColumnValues(employee, true);
+    }
+}
@@ -0,0 +1,84 @@
+package fr.nassime.helios.benchmark;
+
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.InsertBuilder;
+import fr.nassime.helios.query.SelectBuilder;
+import fr.nassime.helios.query.UpdateBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+    private Map<String, Object> conditions;
+    private Map<String, Object> insertValues;
+    private Map<String, Object> updateValues;
+
+    @Setup
+    public void setUp() {
+        EntityMapper<BenchmarkEmployee> mapper = new EntityMapper<>(BenchmarkEmployee.class);
+        BenchmarkEmployee employee = BenchmarkEmployee.sample(42, 7L);
+        employee.setId(42L);
+
+        conditions = new LinkedHashMap<>();
+        conditions.put("department_id", 7L);
+        conditions.put("status", BenchmarkEmployee.Status.ACTIVE);
+        insertValues = mapper.toColumnValues(employee, false);
+        updateValues = mapper.toColumnValues(employee, true);
+    }
+
+    @Benchmark
+    public String selectById() {
+        return SelectBuilder.create()
+                .columns()
+                .from("bench_employees")
+                .where(Map.of("id", 42L))
+                .getQuery();
+    }
+
+    @Benchmark
+    public String selectByConditionsOrdered() {
+        return SelectBuilder.create()
+                .columns("id", "name", "email")
+                .from("bench_employees")
+                .where(conditions)
+                .orderBy("hire_date", false)
+                .limit(50)
+                .getQuery();
+    }
+
+    @Benchmark
+    public String insert() {
+        return InsertBuilder.create()
+                .into("bench_employees")
+                .values(insertValues)
+                .returning("id")
+                .getQuery();
+    }
+
+    @Benchmark
+    public String update() {
+        return UpdateBuilder.create()
+                .table("bench_employees")
+                .set(updateValues)
+                .where(Map.of("id", 42L))
+                .getQuery();
+    }
+}
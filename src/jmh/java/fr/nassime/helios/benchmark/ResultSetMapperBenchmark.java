@@ -0,0 +1,46 @@
+package fr.nassime.helios.benchmark;
+
+import fr.nassime.helios.mapping.ResultSetMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSetMapperBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int rows;
+
+    private ResultSetMapper resultSetMapper;
+    private Object[][] data;
+
+    @Setup
+    public void setUp() {
+        resultSetMapper = new ResultSetMapper();
+        data = BenchmarkData.employeeRows(rows);
+    }
+
+    @Benchmark
+    public List<BenchmarkEmployee> mapToList() {
+        // Creating the cursor here is cheaper and less noisy than a per-invocation setup
+        ResultSet resultSet = SyntheticResultSet.of(BenchmarkData.EMPLOYEE_COLUMNS, data);
+        return resultSetMapper.mapToList(resultSet, BenchmarkEmployee.class);
+    }
+}
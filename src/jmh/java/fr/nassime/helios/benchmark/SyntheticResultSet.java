@@ -0,0 +1,101 @@
+package fr.nassime.helios.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+
+/**
+ * In-memory forward-only {@link ResultSet} over pre-built rows, so mapping benchmarks measure
+ * Helios rather than the driver or the network. Backed by a dynamic proxy, which adds a small
+ * constant cost per call that is identical across runs.
+ */
+public final class SyntheticResultSet {
+
+    private SyntheticResultSet() {
+    }
+
+    public static ResultSet of(String[] columns, Object[][] rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                SyntheticResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> columns.length;
+                    case "getColumnName", "getColumnLabel" -> columns[(Integer) args[0] - 1];
+                    default -> throw new SQLFeatureNotSupportedException(method.getName());
+                });
+
+        int[] cursor = {-1};
+        Object[] lastValue = {null};
+
+        return (ResultSet) Proxy.newProxyInstance(
+                SyntheticResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "getMetaData":
+                            return metaData;
+                        case "wasNull":
+                            return lastValue[0] == null;
+                        case "close":
+                            return null;
+                        case "isClosed":
+                            return false;
+                        case "findColumn":
+                            return findColumn(columns, (String) args[0]);
+                        default:
+                            break;
+                    }
+
+                    if (method.getName().startsWith("get") && args != null && args.length >= 1) {
+                        int index = args[0] instanceof String label ? findColumn(columns, label) : (Integer) args[0];
+                        Object value = rows[cursor[0]][index - 1];
+                        lastValue[0] = value;
+                        return convert(value, method.getReturnType(), args.length > 1 ? args[1] : null);
+                    }
+
+                    throw new SQLFeatureNotSupportedException(method.getName());
+                });
+    }
+
+    private static int findColumn(String[] columns, String label) throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Unknown column " + label);
+    }
+
+    private static Object convert(Object value, Class<?> returnType, Object typeArgument) {
+        if (typeArgument instanceof Class<?> requested && value instanceof Timestamp timestamp
+                && requested == java.time.LocalDateTime.class) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value == null) {
+            if (returnType == long.class || returnType == int.class || returnType == short.class
+                    || returnType == byte.class) {
+                return 0;
+            } else if (returnType == double.class || returnType == float.class) {
+                return 0.0;
+            } else if (returnType == boolean.class) {
+                return false;
+            }
+            return null;
+        }
+        if (returnType == long.class) {
+            return ((Number) value).longValue();
+        } else if (returnType == int.class) {
+            return ((Number) value).intValue();
+        } else if (returnType == double.class) {
+            return ((Number) value).doubleValue();
+        } else if (returnType == String.class) {
+            return value.toString();
+        }
+        return value;
+    }
+}
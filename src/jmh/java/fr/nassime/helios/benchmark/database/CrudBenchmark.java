@@ -0,0 +1,62 @@
+package fr.nassime.helios.benchmark.database;
+
+import fr.nassime.helios.benchmark.BenchmarkEmployee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudBenchmark {
+
+    @Param({"100"})
+    private int batchSize;
+
+    private long sequence;
+
+    @Benchmark
+    public List<BenchmarkEmployee> findAll(DatabaseState state) {
+        return state.orm.findAll(BenchmarkEmployee.class);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkEmployee> findById(DatabaseState state) {
+        List<Long> ids = state.employeeIds;
+        return state.orm.findById(BenchmarkEmployee.class, ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public BenchmarkEmployee saveNew(DatabaseState state) {
+        return state.orm.save(BenchmarkEmployee.sample(sequence++, state.departmentIds.get(0)));
+    }
+
+    // Upserts existing rows by id, so that every call takes the ON CONFLICT DO UPDATE path
+    @Benchmark
+    public List<BenchmarkEmployee> upsertAll(DatabaseState state) {
+        List<Long> ids = state.employeeIds;
+        List<BenchmarkEmployee> employees = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            BenchmarkEmployee employee = BenchmarkEmployee.sample(sequence++, state.departmentIds.get(i % state.departmentIds.size()));
+            employee.setId(ids.get((int) (sequence % ids.size())));
+            employees.add(employee);
+        }
+        return state.orm.upsertAll(employees);
+    }
+}
@@ -0,0 +1,74 @@
+package fr.nassime.helios.benchmark.database;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.benchmark.BenchmarkDepartment;
+import fr.nassime.helios.benchmark.BenchmarkEmployee;
+import fr.nassime.helios.connection.DataSourceConfig;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared PostgreSQL fixture. Connection settings come from the {@code helios.bench.*} system
+ * properties, which the Gradle {@code jmh} task sets from {@code -PbenchJdbcUrl=...}.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+    public static final int DEPARTMENTS = 20;
+    public static final int EMPLOYEES_PER_DEPARTMENT = 50;
+
+    public HeliosORM orm;
+    public List<Long> departmentIds;
+    public List<Long> employeeIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String jdbcUrl = System.getProperty("helios.bench.jdbcUrl");
+        if (jdbcUrl == null) {
+            throw new IllegalStateException("Set -PbenchJdbcUrl=jdbc:postgresql://... to run database benchmarks");
+        }
+
+        orm = HeliosORM.create(DataSourceConfig.builder()
+                .jdbcUrl(jdbcUrl)
+                .username(System.getProperty("helios.bench.username", "postgres"))
+                .password(System.getProperty("helios.bench.password", "postgres"))
+                .build());
+
+        orm.executeUpdate("DROP TABLE IF EXISTS bench_employees");
+        orm.executeUpdate("DROP TABLE IF EXISTS bench_departments");
+        orm.executeUpdate("CREATE TABLE bench_departments (id BIGSERIAL PRIMARY KEY, name TEXT NOT NULL)");
+        orm.executeUpdate("CREATE TABLE bench_employees (id BIGSERIAL PRIMARY KEY, name TEXT NOT NULL, "
+                + "email TEXT, hire_date TIMESTAMP, salary DOUBLE PRECISION, status TEXT, "
+                + "department_id BIGINT REFERENCES bench_departments (id))");
+        orm.executeUpdate("CREATE INDEX ON bench_employees (department_id)");
+
+        departmentIds = new ArrayList<>();
+        employeeIds = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            BenchmarkDepartment department = orm.save(new BenchmarkDepartment("Department " + d));
+            departmentIds.add(department.getId());
+
+            List<BenchmarkEmployee> employees = new ArrayList<>();
+            for (int e = 0; e < EMPLOYEES_PER_DEPARTMENT; e++) {
+                employees.add(BenchmarkEmployee.sample((long) d * EMPLOYEES_PER_DEPARTMENT + e, department.getId()));
+            }
+            for (BenchmarkEmployee employee : orm.insertAll(employees)) {
+                employeeIds.add(employee.getId());
+            }
+        }
+        orm.executeUpdate("ANALYZE bench_departments");
+        orm.executeUpdate("ANALYZE bench_employees");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        orm.executeUpdate("DROP TABLE IF EXISTS bench_employees");
+        orm.executeUpdate("DROP TABLE IF EXISTS bench_departments");
+        orm.close();
+    }
+}
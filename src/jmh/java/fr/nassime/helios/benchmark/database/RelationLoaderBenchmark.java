@@ -0,0 +1,41 @@
+package fr.nassime.helios.benchmark.database;
+
+import fr.nassime.helios.benchmark.BenchmarkDepartment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationLoaderBenchmark {
+
+    @Benchmark
+    public BenchmarkDepartment loadOneDepartmentGraph(DatabaseState state) {
+        BenchmarkDepartment department = state.orm.findById(BenchmarkDepartment.class, state.departmentIds.get(0))
+                .orElseThrow();
+        state.orm.loadRelation(department, "employees");
+        return department;
+    }
+
+    @Benchmark
+    public List<BenchmarkDepartment> loadAllDepartmentGraphs(DatabaseState state) {
+        List<BenchmarkDepartment> departments = state.orm.findAll(BenchmarkDepartment.class);
+        for (BenchmarkDepartment department : departments) {
+            state.orm.loadRelation(department, "employees");
+        }
+        return departments;
+    }
+}
@@ -3,30 +3,75 @@ package fr.nassime.helios;
 import fr.nassime.helios.connection.ConnectionManager;
 import fr.nassime.helios.connection.DataSourceConfig;
 import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.exception.QueryTimeoutException;
+import fr.nassime.helios.export.CopyExporter;
+import fr.nassime.helios.export.ExportConfig;
+import fr.nassime.helios.hedge.HedgedReadExecutor;
+import fr.nassime.helios.invalidation.InvalidationBus;
+import fr.nassime.helios.lob.LazyColumnLoader;
+import fr.nassime.helios.lob.LobStreams;
 import fr.nassime.helios.mapping.EntityMapper;
 import fr.nassime.helios.mapping.ResultSetMapper;
+import fr.nassime.helios.mapping.RowMapper;
+import fr.nassime.helios.metrics.CompositeInstrumentation;
+import fr.nassime.helios.metrics.HeliosInstrumentation;
+import fr.nassime.helios.metrics.MetricsRegistry;
+import fr.nassime.helios.metrics.MetricsSnapshot;
+import fr.nassime.helios.query.CompiledQuery;
+import fr.nassime.helios.query.ConflictAction;
 import fr.nassime.helios.query.DeleteBuilder;
 import fr.nassime.helios.query.InsertBuilder;
+import fr.nassime.helios.query.NamedQueryRegistry;
+import fr.nassime.helios.query.NativeQuery;
+import fr.nassime.helios.query.QueryBuilder;
+import fr.nassime.helios.query.QueryExecutor;
 import fr.nassime.helios.query.SelectBuilder;
 import fr.nassime.helios.query.UpdateBuilder;
+import fr.nassime.helios.relation.CascadeSaver;
 import fr.nassime.helios.relation.RelationInfo;
 import fr.nassime.helios.relation.RelationLoader;
+import fr.nassime.helios.relation.RelationType;
+import fr.nassime.helios.scan.ParallelScanner;
+import fr.nassime.helios.scan.ScanConfig;
+import fr.nassime.helios.startup.ConnectionWarmer;
+import fr.nassime.helios.startup.EntityScanner;
+import fr.nassime.helios.startup.SchemaValidator;
+import fr.nassime.helios.transaction.Deadline;
 import fr.nassime.helios.transaction.TransactionManager;
+import fr.nassime.helios.types.TypeConverters;
+import fr.nassime.helios.writebehind.WriteBehindBuffer;
+import fr.nassime.helios.writebehind.WriteBehindConfig;
+import fr.nassime.helios.writebehind.WriteBehindManager;
 import fr.nassime.helios.util.ReflectionUtils;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class HeliosORM implements AutoCloseable {
+    private static final int MAX_BIND_PARAMETERS = 32767;
+
     @Getter
     private final ConnectionManager connectionManager;
     private final TransactionManager transactionManager;
@@ -34,51 +79,295 @@ public class HeliosORM implements AutoCloseable {
     private final ResultSetMapper resultSetMapper;
     private final Map<Class<?>, EntityMapper<?>> entityMappers;
     private final RelationLoader relationLoader;
+    private final int batchSize;
+    private final CompositeInstrumentation instrumentation;
+    @Getter
+    private final MetricsRegistry metricsRegistry;
+    @Getter
+    private final QueryExecutor queryExecutor;
+    @Getter
+    private final InvalidationBus invalidationBus;
+    private final WriteBehindManager writeBehind;
+    private final NamedQueryRegistry namedQueries = new NamedQueryRegistry();
+    private final CascadeSaver cascadeSaver;
+    private final ParallelScanner parallelScanner;
+    private final CopyExporter copyExporter;
+    private final LazyColumnLoader lazyColumnLoader;
+    private final LobStreams lobStreams;
+    private final ExecutorService asyncExecutor;
+    private final HedgedReadExecutor hedgedReads;
+    private final ThreadLocal<ActiveTransaction> currentTransaction = new ThreadLocal<>();
 
     private HeliosORM(DataSourceConfig config) {
         this.connectionManager = new ConnectionManager(config);
-        this.transactionManager = new TransactionManager();
-        this.resultSetMapper = new ResultSetMapper();
+        this.instrumentation = new CompositeInstrumentation();
+        this.metricsRegistry = new MetricsRegistry(connectionManager::getPoolStats);
+        if (config.isMetricsEnabled()) {
+            instrumentation.add(metricsRegistry);
+        }
+        this.queryExecutor = new QueryExecutor(instrumentation);
+        this.transactionManager = new TransactionManager(instrumentation);
+        this.resultSetMapper = new ResultSetMapper(entityClass -> getEntityMapper(entityClass));
         this.entityMappers = new ConcurrentHashMap<>();
         this.relationLoader = new RelationLoader(this);
+        this.batchSize = config.getBatchSize();
+        this.invalidationBus = new InvalidationBus(connectionManager, config);
+        invalidationBus.start();
+        this.writeBehind = new WriteBehindManager(this);
+        this.cascadeSaver = new CascadeSaver(this);
+        this.parallelScanner = new ParallelScanner(this);
+        this.copyExporter = new CopyExporter(this);
+        this.lazyColumnLoader = new LazyColumnLoader(this, batchSize);
+        this.lobStreams = new LobStreams(this);
+        AtomicInteger asyncThreads = new AtomicInteger();
+        this.asyncExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "helios-async-" + asyncThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hedgedReads = config.isHedgedReads()
+                ? new HedgedReadExecutor(connectionManager, asyncExecutor, instrumentation, config)
+                : null;
         log.info("Helios ORM successfully initialized");
     }
 
     public static HeliosORM create(DataSourceConfig config) {
-        return new HeliosORM(config);
+        HeliosORM orm = new HeliosORM(config);
+        try {
+            orm.initialize(config);
+        } catch (RuntimeException e) {
+            orm.close();
+            throw e;
+        }
+        return orm;
+    }
+
+    private void initialize(DataSourceConfig config) {
+        Set<Class<?>> entityClasses = new EntityScanner().scan(config.getEntityPackages());
+        if (entityClasses.isEmpty()) {
+            return;
+        }
+
+        // Les métadonnées sont construites en parallèle, une fois pour toutes
+        List<EntityMapper<?>> mappers = entityClasses.parallelStream()
+                .<EntityMapper<?>>map(this::getEntityMapper)
+                .collect(Collectors.toList());
+
+        if (config.isValidateSchema()) {
+            try (Connection connection = getConnection()) {
+                new SchemaValidator().validate(connection, mappers);
+                connection.rollback();
+            } catch (SQLException e) {
+                throw new HeliosException("Error while validating the database schema", e);
+            }
+        }
+
+        if (config.isValidateNamedQueries() && !namedQueries.isEmpty()) {
+            try (Connection connection = getConnection()) {
+                namedQueries.validate(connection, resultSetMapper);
+                connection.rollback();
+            } catch (SQLException e) {
+                throw new HeliosException("Error while validating named queries", e);
+            }
+        }
+
+        if (config.isWarmUp()) {
+            new ConnectionWarmer().warmUp(connectionManager::getConnection,
+                    Math.min(config.getMinIdle(), config.getMaxPoolSize()), mappers);
+        }
+    }
+
+    public HeliosInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public void addInstrumentation(HeliosInstrumentation instrumentation) {
+        this.instrumentation.add(instrumentation);
+    }
+
+    public void removeInstrumentation(HeliosInstrumentation instrumentation) {
+        this.instrumentation.remove(instrumentation);
+    }
+
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metricsRegistry.snapshot();
     }
 
     public Connection getConnection() {
         try {
-            return connectionManager.getConnection();
+            long start = System.nanoTime();
+            Connection connection = connectionManager.getConnection();
+            instrumentation.onConnectionAcquired(System.nanoTime() - start);
+            return connection;
+        } catch (SQLException e) {
+            throw new HeliosException("Unable to obtain a database fr.nassime.helios.connection", e);
+        }
+    }
+
+    public Connection getReadConnection() {
+        try {
+            long start = System.nanoTime();
+            Connection connection = connectionManager.getReadConnection();
+            instrumentation.onConnectionAcquired(System.nanoTime() - start);
+            return connection;
         } catch (SQLException e) {
             throw new HeliosException("Unable to obtain a database fr.nassime.helios.connection", e);
         }
     }
 
     public void close() {
+        asyncExecutor.shutdownNow();
+        writeBehind.close();
+        invalidationBus.close();
         connectionManager.close();
     }
 
+    /**
+     * Runs the operation in a transaction. When the current thread is already inside one, the
+     * operation joins it instead of opening a second connection, so nested calls commit or roll
+     * back together.
+     */
     public <T> T executeInTransaction(Function<Connection, T> operation) {
+        ActiveTransaction current = currentTransaction.get();
+        if (current != null) {
+            if (current.readOnly) {
+                // La connexion peut venir d'un réplica : on refuse plutôt que d'écrire au mauvais endroit
+                throw new HeliosException("Cannot write inside executeInReadOnlyTransaction, "
+                        + "run the write in executeInTransaction instead");
+            }
+            return operation.apply(current.connection);
+        }
+        return executeInNewTransaction(operation);
+    }
+
+    /**
+     * Runs the operation in a transaction of its own on a fresh primary connection, even when the
+     * current thread is already inside one, so it commits or rolls back independently of the caller.
+     */
+    public <T> T executeInNewTransaction(Function<Connection, T> operation) {
+        ActiveTransaction outer = currentTransaction.get();
         try (Connection connection = getConnection()) {
+            currentTransaction.set(new ActiveTransaction(connection, false));
             return transactionManager.executeInTransaction(connection, operation);
         } catch (SQLException e) {
             throw new HeliosException("Error during fr.nassime.helios.transaction execution", e);
+        } finally {
+            if (outer != null) {
+                currentTransaction.set(outer);
+            } else {
+                currentTransaction.remove();
+            }
+            connectionManager.markWrite();
         }
     }
 
     public void executeInTransactionWithoutResult(Consumer<Connection> operation) {
-        try (Connection connection = getConnection()) {
-            transactionManager.executeInTransactionWithoutResult(connection, operation);
+        executeInTransaction(connection -> {
+            operation.accept(connection);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a read-only unit of work, on a replica when some are configured. Writes attempted inside
+     * it, such as a nested {@link #executeInTransaction}, save or delete, fail with a
+     * {@link HeliosException} instead of joining it.
+     */
+    public <T> T executeInReadOnlyTransaction(Function<Connection, T> operation) {
+        ActiveTransaction current = currentTransaction.get();
+        if (current != null) {
+            // Reads inside a write transaction must see its uncommitted changes
+            return operation.apply(current.connection);
+        }
+
+        try (Connection connection = getReadConnection()) {
+            currentTransaction.set(new ActiveTransaction(connection, true));
+            return transactionManager.executeInTransaction(connection, operation);
         } catch (SQLException e) {
             throw new HeliosException("Error during fr.nassime.helios.transaction execution", e);
+        } finally {
+            currentTransaction.remove();
         }
     }
 
+    // Le SQL brut rejoint aussi une transaction en lecture seule : Helios ne sait pas s'il écrit
+    private <T> T executeNative(Function<Connection, T> operation) {
+        ActiveTransaction current = currentTransaction.get();
+        return current != null ? operation.apply(current.connection) : executeInTransaction(operation);
+    }
+
+    /**
+     * Runs a short read-only unit of work as a hedged read when enabled: it may run on two data
+     * sources at once, so it must not have side effects. Inside a transaction it simply joins it.
+     */
+    private <T> T executeHedgedRead(String key, Function<Connection, T> operation) {
+        if (hedgedReads == null || currentTransaction.get() != null) {
+            return executeInReadOnlyTransaction(operation);
+        }
+
+        return hedgedReads.execute(key, connection -> {
+            currentTransaction.set(new ActiveTransaction(connection, true));
+            try {
+                return transactionManager.executeInTransaction(connection, operation);
+            } finally {
+                currentTransaction.remove();
+            }
+        });
+    }
+
+    /**
+     * Runs the operation with a deadline: every statement it executes, including nested relation
+     * loads and transactions, gets the remaining time as its timeout. Throws
+     * {@link QueryTimeoutException} once the budget is spent.
+     */
+    public <T> T withTimeout(Duration timeout, Supplier<T> operation) {
+        return Deadline.after(timeout).run(operation);
+    }
+
+    /**
+     * Runs the operation on a Helios worker thread with a deadline. Cancelling the returned future
+     * cancels the statement in flight on the server.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Duration timeout, Supplier<T> operation) {
+        Deadline deadline = Deadline.after(timeout);
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                deadline.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        asyncExecutor.execute(() -> {
+            try {
+                future.complete(deadline.run(operation));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Buffers {@link #update} calls for the given entity type and writes them in coalesced batches.
+     * Reads do not see buffered changes until they are flushed.
+     */
+    public <T> WriteBehindBuffer<T> enableWriteBehind(Class<T> entityClass, WriteBehindConfig config) {
+        return writeBehind.enable(entityClass, config);
+    }
+
+    public void flushWriteBehind() {
+        writeBehind.flushAll();
+    }
+
     @SuppressWarnings("unchecked")
     public <T> EntityMapper<T> getEntityMapper(Class<T> entityClass) {
-        return (EntityMapper<T>) entityMappers.computeIfAbsent(entityClass, EntityMapper::new);
+        return (EntityMapper<T>) entityMappers.computeIfAbsent(entityClass, this::createEntityMapper);
+    }
+
+    private EntityMapper<?> createEntityMapper(Class<?> entityClass) {
+        EntityMapper<?> mapper = new EntityMapper<>(entityClass);
+        namedQueries.register(entityClass);
+        return mapper;
     }
 
     public <T, ID> Optional<T> findById(Class<T> entityClass, ID id) {
@@ -86,16 +375,15 @@ public class HeliosORM implements AutoCloseable {
         String tableName = mapper.getTableName();
         String idColumn = mapper.getIdColumnName();
 
-        return executeInTransaction(connection -> {
+        return executeHedgedRead(entityClass.getName() + "#findById", connection -> {
             SelectBuilder selectBuilder = SelectBuilder.create()
-                    .columns()
+                    .columns(mapper.getSelectColumns())
                     .from(tableName)
                     .where(Collections.singletonMap(idColumn, id));
 
-            try (PreparedStatement statement = selectBuilder.prepareStatement(connection);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                T entity = resultSetMapper.mapToEntity(resultSet, entityClass);
+            try {
+                T entity = queryExecutor.query(connection, selectBuilder,
+                        resultSet -> resultSetMapper.mapToEntity(resultSet, entityClass));
 
                 if (entity != null) {
                     // Load EAGER relations
@@ -109,19 +397,113 @@ public class HeliosORM implements AutoCloseable {
         });
     }
 
+    /**
+     * Loads the entities with the given ids with one {@code id = ANY(?)} query per
+     * {@code batchSize} ids, in the order of the ids. Missing ids are skipped.
+     */
+    public <T, ID> List<T> findAllById(Class<T> entityClass, Collection<ID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        String tableName = mapper.getTableName();
+        String idColumn = mapper.getIdColumnName();
+        List<Object> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        return executeInReadOnlyTransaction(connection -> {
+            Map<Object, T> byId = new HashMap<>();
+            for (int start = 0; start < distinctIds.size(); start += batchSize) {
+                List<Object> chunk = distinctIds.subList(start, Math.min(start + batchSize, distinctIds.size()));
+                SelectBuilder selectBuilder = SelectBuilder.create()
+                        .columns(mapper.getSelectColumns())
+                        .from(tableName)
+                        .whereCustom(idColumn + " = ANY(?)", chunk);
+
+                try {
+                    List<T> entities = queryExecutor.query(connection, selectBuilder,
+                            resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
+                    for (T entity : entities) {
+                        byId.put(EntityMapper.idKey(mapper.getIdValue(entity)), entity);
+                    }
+                } catch (SQLException e) {
+                    throw new HeliosException("Error while finding entities by IDs", e);
+                }
+            }
+
+            List<T> entities = new ArrayList<>(byId.size());
+            for (Object id : distinctIds) {
+                T entity = byId.get(EntityMapper.idKey(id));
+                if (entity != null) {
+                    loadEagerRelations(entity);
+                    entities.add(entity);
+                }
+            }
+            return entities;
+        });
+    }
+
+    public <T, ID> boolean existsById(Class<T> entityClass, ID id) {
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        return exists(mapper, Collections.singletonMap(mapper.getIdColumnName(), id));
+    }
+
+    public <T> boolean existsBy(Class<T> entityClass, Map<String, Object> conditions) {
+        return exists(getEntityMapper(entityClass), conditions);
+    }
+
+    private boolean exists(EntityMapper<?> mapper, Map<String, Object> conditions) {
+        return executeHedgedRead(mapper.getEntityClass().getName() + "#exists", connection -> {
+            SelectBuilder selectBuilder = SelectBuilder.create()
+                    .columns("1")
+                    .from(mapper.getTableName())
+                    .where(conditions)
+                    .limit(1);
+
+            try {
+                return queryExecutor.query(connection, selectBuilder, ResultSet::next);
+            } catch (SQLException e) {
+                throw new HeliosException("Error while checking the existence of " + mapper.getTableName() + " rows", e);
+            }
+        });
+    }
+
+    public long count(Class<?> entityClass) {
+        return count(entityClass, Collections.emptyMap());
+    }
+
+    public long count(Class<?> entityClass, Map<String, Object> conditions) {
+        EntityMapper<?> mapper = getEntityMapper(entityClass);
+
+        return executeInReadOnlyTransaction(connection -> {
+            SelectBuilder selectBuilder = SelectBuilder.create()
+                    .columns("count(*)")
+                    .from(mapper.getTableName())
+                    .where(conditions);
+
+            try {
+                return queryExecutor.query(connection, selectBuilder, resultSet -> {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                });
+            } catch (SQLException e) {
+                throw new HeliosException("Error while counting " + mapper.getTableName() + " rows", e);
+            }
+        });
+    }
+
     public <T> List<T> findAll(Class<T> entityClass) {
         EntityMapper<T> mapper = getEntityMapper(entityClass);
         String tableName = mapper.getTableName();
 
-        return executeInTransaction(connection -> {
+        return executeInReadOnlyTransaction(connection -> {
             SelectBuilder selectBuilder = SelectBuilder.create()
-                    .columns()
+                    .columns(mapper.getSelectColumns())
                     .from(tableName);
 
-            try (PreparedStatement statement = selectBuilder.prepareStatement(connection);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                List<T> entities = resultSetMapper.mapToList(resultSet, entityClass);
+            try {
+                List<T> entities = queryExecutor.query(connection, selectBuilder,
+                        resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
 
                 for (T entity : entities) {
                     loadEagerRelations(entity);
@@ -134,20 +516,71 @@ public class HeliosORM implements AutoCloseable {
         });
     }
 
+    /**
+     * Streams a whole table through the consumer, splitting it into ranges read concurrently on
+     * separate connections. The consumer is called from several threads at once and must be
+     * thread-safe; eager relations are not loaded. Returns the number of rows scanned.
+     */
+    public <T> long parallelScan(Class<T> entityClass, Consumer<List<T>> consumer) {
+        return parallelScan(entityClass, consumer, ScanConfig.builder().build());
+    }
+
+    public <T> long parallelScan(Class<T> entityClass, Consumer<List<T>> consumer, ScanConfig config) {
+        return parallelScanner.scan(entityClass, consumer, config);
+    }
+
+    /**
+     * Loads the {@code @Column(lazy = true)} columns of the given entities, all of them when no
+     * field is named, with one query per {@code batchSize} entities.
+     */
+    public <T> void loadColumns(Collection<T> entities, String... fieldNames) {
+        lazyColumnLoader.load(entities, fieldNames);
+    }
+
+    /**
+     * Streams a large column of a saved entity without loading it: {@code bytea} and {@code text}
+     * columns chunk by chunk, large object oids through the large object API. The stream holds a
+     * connection until it is closed.
+     */
+    public InputStream openStream(Object entity, String fieldName) {
+        return lobStreams.open(entity, fieldName);
+    }
+
+    public ReadableByteChannel openChannel(Object entity, String fieldName) {
+        return Channels.newChannel(openStream(entity, fieldName));
+    }
+
+    /**
+     * Exports a whole table to a file with {@code COPY ... TO STDOUT}, without mapping any row.
+     */
+    public List<Path> export(Class<?> entityClass, Path target, ExportConfig config) {
+        SelectBuilder selectBuilder = SelectBuilder.create()
+                .columns()
+                .from(getEntityMapper(entityClass).getTableName());
+        return copyExporter.export(selectBuilder, target, config);
+    }
+
+    public List<Path> export(QueryBuilder<?> query, Path target, ExportConfig config) {
+        return copyExporter.export(query, target, config);
+    }
+
+    public long export(QueryBuilder<?> query, WritableByteChannel channel, ExportConfig config) {
+        return copyExporter.export(query, channel, config);
+    }
+
     public <T> List<T> findByConditions(Class<T> entityClass, Map<String, Object> conditions) {
         EntityMapper<T> mapper = getEntityMapper(entityClass);
         String tableName = mapper.getTableName();
 
-        return executeInTransaction(connection -> {
+        return executeInReadOnlyTransaction(connection -> {
             SelectBuilder selectBuilder = SelectBuilder.create()
-                    .columns()
+                    .columns(mapper.getSelectColumns())
                     .from(tableName)
                     .where(conditions);
 
-            try (PreparedStatement statement = selectBuilder.prepareStatement(connection);
-                 ResultSet resultSet = statement.executeQuery()) {
-
-                List<T> entities = resultSetMapper.mapToList(resultSet, entityClass);
+            try {
+                List<T> entities = queryExecutor.query(connection, selectBuilder,
+                        resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
 
                 // Load EAGER relations for each entity
                 for (T entity : entities) {
@@ -161,6 +594,112 @@ public class HeliosORM implements AutoCloseable {
         });
     }
 
+    public <T> List<T> findByConditions(Class<T> entityClass, Map<String, Object> conditions,
+                                        String orderBy, boolean ascending, int limit) {
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        String tableName = mapper.getTableName();
+
+        return executeHedgedRead(entityClass.getName() + "#findByConditions", connection -> {
+            SelectBuilder selectBuilder = SelectBuilder.create()
+                    .columns(mapper.getSelectColumns())
+                    .from(tableName)
+                    .where(conditions)
+                    .orderBy(orderBy, ascending)
+                    .limit(limit);
+
+            try {
+                List<T> entities = queryExecutor.query(connection, selectBuilder,
+                        resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
+
+                for (T entity : entities) {
+                    loadEagerRelations(entity);
+                }
+
+                return entities;
+            } catch (SQLException e) {
+                throw new HeliosException("Error while finding entities by conditions", e);
+            }
+        });
+    }
+
+    /**
+     * Claims up to {@code batchSize} rows matching the criteria with {@code FOR NO KEY UPDATE SKIP
+     * LOCKED}: rows already locked by other workers are skipped instead of waited for, so that
+     * concurrent consumers drain a job table without blocking each other. The lock still lets other
+     * transactions insert rows referencing the claimed ones. The rows stay locked until the
+     * enclosing transaction ends, so this must run inside {@link #executeInTransaction}.
+     */
+    public <T> List<T> claim(Class<T> entityClass, Map<String, Object> criteria, int batchSize) {
+        return claim(entityClass, criteria, getEntityMapper(entityClass).getIdColumnName(), batchSize);
+    }
+
+    public <T> List<T> claim(Class<T> entityClass, Map<String, Object> criteria, String orderBy, int batchSize) {
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        ActiveTransaction transaction = currentTransaction.get();
+        if (transaction == null) {
+            throw new HeliosException("claim must run inside executeInTransaction, the claimed rows are locked until it ends");
+        }
+        if (transaction.readOnly) {
+            throw new HeliosException("claim cannot run inside executeInReadOnlyTransaction");
+        }
+        Connection connection = transaction.connection;
+
+        SelectBuilder selectBuilder = SelectBuilder.create()
+                .columns(mapper.getSelectColumns())
+                .from(mapper.getTableName())
+                .where(criteria)
+                .orderBy(orderBy, true)
+                .limit(batchSize)
+                .forNoKeyUpdate()
+                .skipLocked();
+
+        try {
+            List<T> entities = queryExecutor.query(connection, selectBuilder,
+                    resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
+
+            for (T entity : entities) {
+                loadEagerRelations(entity);
+            }
+
+            return entities;
+        } catch (SQLException e) {
+            throw new HeliosException("Error while claiming rows of " + mapper.getTableName(), e);
+        }
+    }
+
+    /**
+     * Sets the same column values on all the given entities with a single
+     * {@code UPDATE ... WHERE id = ANY(?)}, e.g. to mark a batch of claimed jobs as done in the
+     * transaction that claimed them. The in-memory entities are left unchanged.
+     */
+    public <T> int completeAll(Collection<T> entities, Map<String, Object> values) {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        EntityMapper<T> mapper = getEntityMapper((Class<T>) entities.iterator().next().getClass());
+        String tableName = mapper.getTableName();
+        List<Object> ids = entities.stream().map(mapper::getIdValue).toList();
+        Map<String, Object> columnValues = new LinkedHashMap<>();
+        values.forEach((column, value) -> columnValues.put(column, mapper.toParameter(column, value)));
+
+        return executeInTransaction(connection -> {
+            UpdateBuilder updateBuilder = UpdateBuilder.create()
+                    .table(tableName)
+                    .set(columnValues)
+                    .whereCustom(mapper.getIdColumnName() + " = ANY(?)", ids);
+
+            try {
+                int updated = queryExecutor.update(connection, updateBuilder);
+                invalidationBus.publishAll(connection, tableName, ids);
+                return updated;
+            } catch (SQLException e) {
+                throw new HeliosException("Error while completing rows of " + tableName, e);
+            }
+        });
+    }
+
     public <T> void loadRelation(T entity, String fieldName) {
         EntityMapper<T> mapper = getEntityMapper((Class<T>) entity.getClass());
         RelationInfo relationInfo = mapper.getRelationByFieldName(fieldName);
@@ -186,43 +725,191 @@ public class HeliosORM implements AutoCloseable {
         Class<T> entityClass = (Class<T>) entity.getClass();
         EntityMapper<T> mapper = getEntityMapper(entityClass);
 
-        Object idValue = mapper.getIdValue(entity);
+        if (mapper.getRelations().stream().anyMatch(relation ->
+                relation.isCascade() || relation.getType() == RelationType.MANY_TO_MANY)) {
+            // The whole graph is written level by level in a single transaction
+            return entityClass.cast(cascadeSaver.save(Collections.singletonList(entity)).get(0));
+        }
+
+        if (isNewId(mapper.getIdValue(entity))) {
+            return insert(entity);
+        }
+        return update(entity);
+    }
 
-        if (idValue == null || (idValue instanceof Number && ((Number) idValue).longValue() == 0)) {
-            // Insert
-            entity = insert(entity);
-        } else {
-            // Update
-            entity = update(entity);
+    /**
+     * Saves several entities and their cascaded relations in one transaction, with one batched
+     * statement per entity type and graph level.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> saveAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
         }
+        return new ArrayList<>((List<T>) cascadeSaver.save(entities));
+    }
+
+    public boolean isNew(Object entity) {
+        @SuppressWarnings("unchecked")
+        EntityMapper<Object> mapper = (EntityMapper<Object>) getEntityMapper(entity.getClass());
+        return isNewId(mapper.getIdValue(entity));
+    }
 
-        // Save cascading relations
-        saveRelationsInCascade(entity, mapper);
+    private boolean isNewId(Object idValue) {
+        return idValue == null || (idValue instanceof Number && ((Number) idValue).longValue() == 0);
+    }
 
+    // Ids generated client-side are assigned before the insert, so no RETURNING round trip is needed
+    private <T> T assignId(Connection connection, EntityMapper<T> mapper, T entity) {
+        if (isNewId(mapper.getIdValue(entity))) {
+            return mapper.withId(entity, mapper.getIdGenerator().nextId(connection));
+        }
         return entity;
     }
 
-    private <T> void saveRelationsInCascade(T entity, EntityMapper<T> mapper) {
-        List<RelationInfo> cascadeRelations = mapper.getRelations().stream()
-                .filter(RelationInfo::isCascade)
-                .toList();
+    /**
+     * Inserts entities of the same type with multi-row {@code INSERT} statements, reading generated
+     * ids back in row order. Records are immutable: the returned list holds copies with their ids.
+     */
+    public <T> List<T> insertAll(List<T> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        @SuppressWarnings("unchecked")
+        EntityMapper<T> mapper = getEntityMapper((Class<T>) entities.get(0).getClass());
+        String tableName = mapper.getTableName();
+        String idColumn = mapper.getIdColumnName();
+        List<T> saved = new ArrayList<>(entities);
 
-        for (RelationInfo relationInfo : cascadeRelations) {
-            Object relatedValue = ReflectionUtils.getFieldValue(entity, relationInfo.getField());
+        executeInTransactionWithoutResult(connection -> {
+            if (mapper.getIdGenerator() != null) {
+                saved.replaceAll(entity -> assignId(connection, mapper, entity));
+            }
 
-            if (relatedValue == null) {
-                continue;
+            boolean returnIds = mapper.isIdGenerated();
+            List<String> columns = new ArrayList<>();
+            if (!returnIds) {
+                columns.add(idColumn);
             }
+            columns.addAll(mapper.toColumnValues(saved.get(0), false).keySet());
+
+            int chunkSize = Math.max(1, Math.min(batchSize, MAX_BIND_PARAMETERS / columns.size()));
+            for (int start = 0; start < saved.size(); start += chunkSize) {
+                List<T> chunk = saved.subList(start, Math.min(start + chunkSize, saved.size()));
+                List<List<Object>> rows = new ArrayList<>(chunk.size());
+                for (T entity : chunk) {
+                    Map<String, Object> columnValues = mapper.toBindValues(entity, false);
+                    if (!returnIds) {
+                        columnValues.put(idColumn, mapper.getIdValue(entity));
+                    }
+                    List<Object> row = new ArrayList<>(columns.size());
+                    for (String column : columns) {
+                        row.add(columnValues.get(column));
+                    }
+                    rows.add(row);
+                }
 
-            if (relationInfo.isCollection()) {
-                Collection<?> collection = (Collection<?>) relatedValue;
-                for (Object relatedEntity : collection) {
-                    save(relatedEntity);
+                InsertBuilder insertBuilder = InsertBuilder.create()
+                        .into(tableName)
+                        .values(columns, rows);
+
+                try {
+                    if (returnIds) {
+                        insertBuilder.returning(idColumn);
+                        queryExecutor.query(connection, insertBuilder, resultSet -> {
+                            int position = 0;
+                            while (resultSet.next()) {
+                                chunk.set(position, mapper.withId(chunk.get(position),
+                                        mapper.getColumnConverter(idColumn).read(resultSet, 1)));
+                                position++;
+                            }
+                            return chunk;
+                        });
+                    } else {
+                        queryExecutor.update(connection, insertBuilder);
+                    }
+                } catch (SQLException e) {
+                    throw new HeliosException("Error during batch insertion into " + tableName, e);
                 }
-            } else {
-                save(relatedValue);
             }
+
+            invalidationBus.publishAll(connection, tableName,
+                    saved.stream().map(mapper::getIdValue).toList());
+        });
+
+        return saved;
+    }
+
+    /**
+     * Updates entities of the same type with one JDBC batch.
+     */
+    public <T> List<T> updateAll(List<T> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<T> entityClass = (Class<T>) entities.get(0).getClass();
+        WriteBehindBuffer<T> buffer = writeBehind.get(entityClass);
+        if (buffer != null) {
+            entities.forEach(buffer::enqueue);
+            return entities;
         }
+        return updateAllNow(entities);
+    }
+
+    /**
+     * Like {@link #updateAll}, but always writes in the current transaction, bypassing write-behind.
+     * Buffered updates of the same ids are discarded so that they cannot overwrite this write later.
+     */
+    public <T> List<T> updateAllNow(List<T> entities) {
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<T> entityClass = (Class<T>) entities.get(0).getClass();
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        String tableName = mapper.getTableName();
+        String idColumn = mapper.getIdColumnName();
+
+        WriteBehindBuffer<T> buffer = writeBehind.get(entityClass);
+        if (buffer != null) {
+            entities.forEach(entity -> buffer.discard(mapper.getIdValue(entity)));
+        }
+
+        executeInTransactionWithoutResult(connection -> {
+            List<UpdateBuilder> updates = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                Map<String, Object> columnValues = mapper.toBindValues(entity, true);
+                columnValues.remove(idColumn);
+                updates.add(UpdateBuilder.create()
+                        .table(tableName)
+                        .set(columnValues)
+                        .where(Collections.singletonMap(idColumn, mapper.getIdValue(entity))));
+            }
+
+            try {
+                for (int start = 0; start < updates.size(); start += batchSize) {
+                    int end = Math.min(start + batchSize, updates.size());
+                    int[] rowsAffected = queryExecutor.batch(connection, updates.subList(start, end));
+                    for (int i = 0; i < rowsAffected.length; i++) {
+                        if (rowsAffected[i] == 0) {
+                            throw new HeliosException("No rows affected during entity update with ID: "
+                                    + mapper.getIdValue(entities.get(start + i)));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new HeliosException("Error during batch update of " + tableName, e);
+            }
+
+            invalidationBus.publishAll(connection, tableName,
+                    entities.stream().map(mapper::getIdValue).toList());
+        });
+
+        return entities;
     }
 
     public <T> T insert(T entity) {
@@ -231,9 +918,15 @@ public class HeliosORM implements AutoCloseable {
         EntityMapper<T> mapper = getEntityMapper(entityClass);
 
         String tableName = mapper.getTableName();
-        Map<String, Object> columnValues = mapper.toColumnValues(entity, false);
+        Map<String, Object> columnValues = mapper.toBindValues(entity, false);
 
         return executeInTransaction(connection -> {
+            T saved = entity;
+            if (mapper.getIdGenerator() != null) {
+                saved = assignId(connection, mapper, entity);
+                columnValues.put(mapper.getIdColumnName(), mapper.getIdValue(saved));
+            }
+
             InsertBuilder insertBuilder = InsertBuilder.create()
                     .into(tableName)
                     .values(columnValues);
@@ -242,28 +935,29 @@ public class HeliosORM implements AutoCloseable {
                 insertBuilder.returning(mapper.getIdColumnName());
             }
 
-            try (PreparedStatement statement = mapper.isIdGenerated()
-                    ? insertBuilder.prepareStatement(connection)
-                    : insertBuilder.prepareStatementWithGeneratedKeys(connection)) {
-
+            try {
                 if (mapper.isIdGenerated()) {
-                    try (ResultSet resultSet = statement.executeQuery()) {
+                    saved = queryExecutor.query(connection, insertBuilder, resultSet -> {
                         if (resultSet.next()) {
-                            Object generatedId = resultSet.getObject(1);
-                            mapper.setIdValue(entity, generatedId);
+                            Object generatedId = mapper.getColumnConverter(mapper.getIdColumnName()).read(resultSet, 1);
+                            return mapper.withId(entity, generatedId);
                         }
-                    }
+                        return entity;
+                    });
+                } else if (mapper.getIdGenerator() != null) {
+                    queryExecutor.update(connection, insertBuilder);
                 } else {
-                    statement.executeUpdate();
-                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    saved = queryExecutor.updateWithGeneratedKeys(connection, insertBuilder, generatedKeys -> {
                         if (generatedKeys.next()) {
-                            Object generatedId = generatedKeys.getObject(1);
-                            mapper.setIdValue(entity, generatedId);
+                            Object generatedId = mapper.getColumnConverter(mapper.getIdColumnName()).read(generatedKeys, 1);
+                            return mapper.withId(entity, generatedId);
                         }
-                    }
+                        return entity;
+                    });
                 }
 
-                return entity;
+                invalidationBus.publish(connection, tableName, mapper.getIdValue(saved));
+                return saved;
             } catch (SQLException e) {
                 throw new HeliosException("Error during entity insertion", e);
             }
@@ -279,7 +973,13 @@ public class HeliosORM implements AutoCloseable {
         String idColumn = mapper.getIdColumnName();
         Object idValue = mapper.getIdValue(entity);
 
-        Map<String, Object> columnValues = mapper.toColumnValues(entity, true);
+        WriteBehindBuffer<T> buffer = writeBehind.get(entityClass);
+        if (buffer != null) {
+            buffer.enqueue(entity);
+            return entity;
+        }
+
+        Map<String, Object> columnValues = mapper.toBindValues(entity, true);
         columnValues.remove(idColumn); // Do not update the ID
 
         return executeInTransaction(connection -> {
@@ -291,11 +991,12 @@ public class HeliosORM implements AutoCloseable {
                     .set(columnValues)
                     .where(whereConditions);
 
-            try (PreparedStatement statement = updateBuilder.prepareStatement(connection)) {
-                int rowsAffected = statement.executeUpdate();
+            try {
+                int rowsAffected = queryExecutor.update(connection, updateBuilder);
                 if (rowsAffected == 0) {
                     throw new HeliosException("No rows affected during entity update with ID: " + idValue);
                 }
+                invalidationBus.publish(connection, tableName, idValue);
                 return entity;
             } catch (SQLException e) {
                 throw new HeliosException("Error during entity update", e);
@@ -303,6 +1004,237 @@ public class HeliosORM implements AutoCloseable {
         });
     }
 
+    public <T> T upsert(T entity) {
+        return upsert(entity, ConflictAction.UPDATE);
+    }
+
+    public <T> T upsert(T entity, ConflictAction action, String... conflictColumns) {
+        return upsertAll(Collections.singletonList(entity), action, conflictColumns).get(0);
+    }
+
+    public <T> List<T> upsertAll(Collection<T> entities) {
+        return upsertAll(entities, ConflictAction.UPDATE);
+    }
+
+    /**
+     * Inserts the entities, or updates the existing rows on a conflict of the given columns (the id
+     * by default). Entities without an id cannot conflict on it and are plainly inserted; with
+     * another conflict target, rows left untouched by {@link ConflictAction#NOTHING} still get the
+     * id of the existing row.
+     */
+    public <T> List<T> upsertAll(Collection<T> entities, ConflictAction action, String... conflictColumns) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<T> entityClass = (Class<T>) entities.iterator().next().getClass();
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        List<String> conflictTarget = conflictColumns.length == 0
+                ? List.of(mapper.getIdColumnName())
+                : Arrays.asList(conflictColumns);
+
+        List<T> saved = new ArrayList<>(entities);
+        // Records reçoivent leur id sous forme de copie, remplacée ici à la fin
+        Map<T, T> withIds = new IdentityHashMap<>();
+
+        executeInTransactionWithoutResult(connection -> {
+            if (mapper.getIdGenerator() != null) {
+                saved.replaceAll(entity -> assignId(connection, mapper, entity));
+            }
+
+            // Rows without an ID leave the ID column out so that the database generates it
+            Map<Boolean, List<T>> groups = saved.stream()
+                    .collect(Collectors.partitioningBy(entity -> isNewId(mapper.getIdValue(entity))));
+
+            for (List<T> group : groups.values()) {
+                if (!group.isEmpty()) {
+                    upsertGroup(connection, mapper, group, action, conflictTarget, withIds);
+                }
+            }
+            invalidationBus.publishTable(connection, mapper.getTableName());
+        });
+
+        if (!withIds.isEmpty()) {
+            saved.replaceAll(entity -> withIds.getOrDefault(entity, entity));
+        }
+        return saved;
+    }
+
+    private <T> void upsertGroup(Connection connection, EntityMapper<T> mapper, List<T> entities,
+                                 ConflictAction action, List<String> conflictTarget, Map<T, T> withIds) {
+        String idColumn = mapper.getIdColumnName();
+        boolean generateIds = isNewId(mapper.getIdValue(entities.get(0)));
+        // Une ligne sans id ne peut pas entrer en conflit sur l'id que la base va lui générer
+        boolean plainInsert = generateIds && conflictTarget.contains(idColumn);
+
+        List<String> columns = new ArrayList<>();
+        if (!generateIds) {
+            columns.add(idColumn);
+        }
+        columns.addAll(mapper.toColumnValues(entities.get(0), false).keySet());
+
+        if (!plainInsert && !columns.containsAll(conflictTarget)) {
+            throw new HeliosException("Conflict columns " + conflictTarget + " are not all inserted into "
+                    + mapper.getTableName());
+        }
+
+        List<String> updateColumns = new ArrayList<>(mapper.toColumnValues(entities.get(0), true).keySet());
+        updateColumns.retainAll(columns);
+        updateColumns.remove(idColumn);
+        updateColumns.removeAll(conflictTarget);
+        if (updateColumns.isEmpty()) {
+            // A no-op assignment still lets RETURNING report the existing row
+            updateColumns.add(conflictTarget.get(0));
+        }
+
+        // Generated IDs are matched back by conflict key, or by position for plain inserts
+        boolean matchByKey = generateIds && !plainInsert;
+        List<String> returning = new ArrayList<>();
+        returning.add(idColumn);
+        if (matchByKey) {
+            returning.addAll(conflictTarget);
+        }
+
+        int chunkSize = Math.max(1, Math.min(batchSize, MAX_BIND_PARAMETERS / columns.size()));
+        for (int start = 0; start < entities.size(); start += chunkSize) {
+            List<T> chunk = entities.subList(start, Math.min(start + chunkSize, entities.size()));
+            Map<List<Object>, T> entitiesByKey = new HashMap<>();
+            List<List<Object>> rows = new ArrayList<>(chunk.size());
+
+            for (T entity : chunk) {
+                Map<String, Object> columnValues = mapper.toColumnValues(entity, false);
+                if (!generateIds) {
+                    columnValues.put(idColumn, mapper.getIdValue(entity));
+                }
+
+                List<Object> row = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    row.add(mapper.toParameter(column, columnValues.get(column)));
+                }
+                rows.add(row);
+
+                if (matchByKey) {
+                    List<Object> key = new ArrayList<>(conflictTarget.size());
+                    for (String column : conflictTarget) {
+                        key.add(columnValues.get(column));
+                    }
+                    entitiesByKey.put(key, entity);
+                }
+            }
+
+            InsertBuilder insertBuilder = InsertBuilder.create()
+                    .into(mapper.getTableName())
+                    .values(columns, rows);
+
+            if (!plainInsert) {
+                insertBuilder.onConflict(conflictTarget.toArray(String[]::new));
+                if (action == ConflictAction.NOTHING) {
+                    insertBuilder.doNothing();
+                } else {
+                    insertBuilder.doUpdate(updateColumns);
+                }
+            }
+
+            if (!generateIds) {
+                try {
+                    queryExecutor.update(connection, insertBuilder);
+                } catch (SQLException e) {
+                    throw new HeliosException("Error during entity upsert", e);
+                }
+                continue;
+            }
+
+            insertBuilder.returning(returning.toArray(String[]::new));
+
+            try {
+                queryExecutor.query(connection, insertBuilder, resultSet -> {
+                    List<T> returned = new ArrayList<>(chunk.size());
+                    int position = 0;
+                    while (resultSet.next()) {
+                        T entity;
+                        if (matchByKey) {
+                            List<Object> key = new ArrayList<>(conflictTarget.size());
+                            for (int i = 0; i < conflictTarget.size(); i++) {
+                                Field keyField = mapper.getColumnField(conflictTarget.get(i));
+                                key.add(readKeyValue(resultSet, i + 2, keyField.getType()));
+                            }
+                            entity = entitiesByKey.get(key);
+                        } else {
+                            entity = chunk.get(position++);
+                        }
+
+                        if (entity != null) {
+                            withIds.put(entity, mapper.withId(entity,
+                                    mapper.getColumnConverter(mapper.getIdColumnName()).read(resultSet, 1)));
+                            returned.add(entity);
+                        }
+                    }
+                    return returned;
+                });
+
+                if (matchByKey && action == ConflictAction.NOTHING) {
+                    // DO NOTHING ne renvoie pas les lignes déjà présentes : on relit leurs ids
+                    Map<List<Object>, T> missing = new HashMap<>();
+                    entitiesByKey.forEach((key, entity) -> {
+                        if (!withIds.containsKey(entity) && !key.contains(null)) {
+                            missing.put(key, entity);
+                        }
+                    });
+                    if (!missing.isEmpty()) {
+                        selectExistingIds(connection, mapper, conflictTarget, missing, withIds);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new HeliosException("Error during entity upsert", e);
+            }
+        }
+    }
+
+    private <T> void selectExistingIds(Connection connection, EntityMapper<T> mapper, List<String> conflictTarget,
+                                       Map<List<Object>, T> entitiesByKey, Map<T, T> withIds) throws SQLException {
+        StringBuilder condition = new StringBuilder("(").append(String.join(", ", conflictTarget)).append(") IN (");
+        String placeholders = "(" + String.join(", ", Collections.nCopies(conflictTarget.size(), "?")) + ")";
+        List<Object> params = new ArrayList<>();
+        int rows = 0;
+        for (List<Object> key : entitiesByKey.keySet()) {
+            condition.append(rows++ > 0 ? ", " : "").append(placeholders);
+            for (int i = 0; i < conflictTarget.size(); i++) {
+                params.add(mapper.toParameter(conflictTarget.get(i), key.get(i)));
+            }
+        }
+        condition.append(")");
+
+        List<String> selected = new ArrayList<>();
+        selected.add(mapper.getIdColumnName());
+        selected.addAll(conflictTarget);
+        SelectBuilder selectBuilder = SelectBuilder.create()
+                .columns(selected)
+                .from(mapper.getTableName())
+                .whereCustom(condition.toString(), params.toArray());
+
+        queryExecutor.query(connection, selectBuilder, resultSet -> {
+            while (resultSet.next()) {
+                List<Object> key = new ArrayList<>(conflictTarget.size());
+                for (int i = 0; i < conflictTarget.size(); i++) {
+                    Field keyField = mapper.getColumnField(conflictTarget.get(i));
+                    key.add(readKeyValue(resultSet, i + 2, keyField.getType()));
+                }
+                T entity = entitiesByKey.get(key);
+                if (entity != null) {
+                    withIds.put(entity, mapper.withId(entity,
+                            mapper.getColumnConverter(mapper.getIdColumnName()).read(resultSet, 1)));
+                }
+            }
+            return null;
+        });
+    }
+
+    private Object readKeyValue(ResultSet resultSet, int columnIndex, Class<?> type) throws SQLException {
+        // Boxed converter so that a NULL key stays null instead of becoming a primitive default
+        return TypeConverters.forType(ReflectionUtils.wrap(type)).read(resultSet, columnIndex);
+    }
+
     public <T> boolean delete(T entity) {
         @SuppressWarnings("unchecked")
         Class<T> entityClass = (Class<T>) entity.getClass();
@@ -311,6 +1243,11 @@ public class HeliosORM implements AutoCloseable {
         // Delete orphaned relations if necessary
         deleteOrphanedRelations(entity, mapper);
 
+        WriteBehindBuffer<T> buffer = writeBehind.get(entityClass);
+        if (buffer != null) {
+            buffer.discard(mapper.getIdValue(entity));
+        }
+
         String tableName = mapper.getTableName();
         String idColumn = mapper.getIdColumnName();
         Object idValue = mapper.getIdValue(entity);
@@ -323,8 +1260,11 @@ public class HeliosORM implements AutoCloseable {
                     .from(tableName)
                     .where(whereConditions);
 
-            try (PreparedStatement statement = deleteBuilder.prepareStatement(connection)) {
-                int rowsAffected = statement.executeUpdate();
+            try {
+                int rowsAffected = queryExecutor.update(connection, deleteBuilder);
+                if (rowsAffected > 0) {
+                    invalidationBus.publish(connection, tableName, idValue);
+                }
                 return rowsAffected > 0;
             } catch (SQLException e) {
                 throw new HeliosException("Error during entity deletion", e);
@@ -353,11 +1293,10 @@ public class HeliosORM implements AutoCloseable {
 
     public int executeUpdate(String sql, Object... params) {
         return executeInTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                for (int i = 0; i < params.length; i++) {
-                    statement.setObject(i + 1, params[i]);
-                }
-                return statement.executeUpdate();
+            try {
+                int rowsAffected = queryExecutor.update(connection, NativeQuery.create(sql, params));
+                invalidationBus.publishStatement(connection, sql);
+                return rowsAffected;
             } catch (SQLException e) {
                 throw new HeliosException("Error during fr.nassime.helios.query execution", e);
             }
@@ -365,41 +1304,75 @@ public class HeliosORM implements AutoCloseable {
     }
 
     public <T> List<T> executeQuery(String sql, Class<T> entityClass, Object... params) {
-        return executeInTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                for (int i = 0; i < params.length; i++) {
-                    statement.setObject(i + 1, params[i]);
+        return executeNative(connection -> {
+            try {
+                List<T> entities = queryExecutor.query(connection, NativeQuery.create(sql, params),
+                        resultSet -> resultSetMapper.mapToList(resultSet, entityClass));
+
+                // Load EAGER relations for each entity
+                for (T entity : entities) {
+                    loadEagerRelations(entity);
                 }
 
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    List<T> entities = resultSetMapper.mapToList(resultSet, entityClass);
+                return entities;
+            } catch (SQLException e) {
+                throw new HeliosException("Error during fr.nassime.helios.query execution", e);
+            }
+        });
+    }
 
-                    // Load EAGER relations for each entity
-                    for (T entity : entities) {
-                        loadEagerRelations(entity);
+    /**
+     * Runs a {@link fr.nassime.helios.annotation.NamedQuery} declared on {@code entityClass}, with
+     * positional parameters.
+     */
+    public <T> List<T> executeNamedQuery(Class<T> entityClass, String name, Object... params) {
+        getEntityMapper(entityClass);
+        CompiledQuery<T> query = namedQueries.get(entityClass, name);
+        return executeNamedQuery(query, query.bind(params));
+    }
+
+    public <T> List<T> executeNamedQuery(Class<T> entityClass, String name, Map<String, ?> params) {
+        getEntityMapper(entityClass);
+        CompiledQuery<T> query = namedQueries.get(entityClass, name);
+        return executeNamedQuery(query, query.bind(params));
+    }
+
+    private <T> List<T> executeNamedQuery(CompiledQuery<T> query, NativeQuery nativeQuery) {
+        return executeInReadOnlyTransaction(connection -> {
+            try {
+                List<T> entities = queryExecutor.query(connection, nativeQuery, resultSet -> {
+                    RowMapper<T> rowMapper = query.rowMapper(resultSet.getMetaData(), resultSetMapper);
+                    List<T> rows = new ArrayList<>();
+                    while (resultSet.next()) {
+                        rows.add(rowMapper.mapRow(resultSet));
                     }
+                    return rows;
+                });
 
-                    return entities;
+                for (T entity : entities) {
+                    loadEagerRelations(entity);
                 }
+
+                return entities;
             } catch (SQLException e) {
-                throw new HeliosException("Error during fr.nassime.helios.query execution", e);
+                throw new HeliosException("Error during named query " + query.getName(), e);
             }
         });
     }
 
     public List<Map<String, Object>> executeQueryForMaps(String sql, Object... params) {
-        return executeInTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                for (int i = 0; i < params.length; i++) {
-                    statement.setObject(i + 1, params[i]);
-                }
-
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    return resultSetMapper.mapToMapList(resultSet);
-                }
+        return executeNative(connection -> {
+            try {
+                return queryExecutor.query(connection, NativeQuery.create(sql, params), resultSetMapper::mapToMapList);
             } catch (SQLException e) {
                 throw new HeliosException("Error during fr.nassime.helios.query execution", e);
             }
         });
     }
-}
\ No newline at end of file
+
+    @RequiredArgsConstructor
+    private static final class ActiveTransaction {
+        private final Connection connection;
+        private final boolean readOnly;
+    }
+}
@@ -18,4 +18,16 @@ public @interface Column {
 
     boolean updatable() default true;
 
+    /**
+     * Leaves the column out of default selects, for large {@code text}/{@code bytea} values that
+     * are loaded on demand with {@code HeliosORM.loadColumns}.
+     */
+    boolean lazy() default false;
+
+    /**
+     * Shares the {@code String} instances read from this column between rows, for status-like
+     * columns with a handful of distinct values.
+     */
+    boolean lowCardinality() default false;
+
 }
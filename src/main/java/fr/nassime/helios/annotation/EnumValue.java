@@ -0,0 +1,17 @@
+package fr.nassime.helios.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The database label of an enum constant, when it differs from the constant name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface EnumValue {
+
+    String value();
+
+}
@@ -12,4 +12,26 @@ public @interface Id {
 
     boolean generated() default true;
 
+    /**
+     * How generated ids are obtained. Only {@link Strategy#IDENTITY} needs the database to return the
+     * key after the insert; the other strategies assign it before, so rows can be batched.
+     */
+    Strategy strategy() default Strategy.IDENTITY;
+
+    /**
+     * Sequence used by {@link Strategy#SEQUENCE}, {@code <table>_<column>_seq} by default.
+     */
+    String sequence() default "";
+
+    /**
+     * Number of sequence values fetched per round trip by {@link Strategy#SEQUENCE}.
+     */
+    int allocationSize() default 50;
+
+    enum Strategy {
+        IDENTITY,
+        SEQUENCE,
+        UUID_V7
+    }
+
 }
@@ -0,0 +1,15 @@
+package fr.nassime.helios.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NamedQueries {
+
+    NamedQuery[] value();
+
+}
@@ -0,0 +1,22 @@
+package fr.nassime.helios.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A query returning rows of the annotated entity, invoked by name. Parameters are either all
+ * positional ({@code ?}) or all named ({@code :name}).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(NamedQueries.class)
+public @interface NamedQuery {
+
+    String name();
+
+    String query();
+
+}
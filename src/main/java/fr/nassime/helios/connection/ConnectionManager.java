@@ -2,23 +2,71 @@ package fr.nassime.helios.connection;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class ConnectionManager {
 
+    private final DataSourceConfig config;
     private final HikariDataSource dataSource;
+    private final DataSourceNode primary;
+    private final List<DataSourceNode> replicas;
+    private final ReadRoutingStrategy readRouting;
+    private final long readYourWritesWindow;
+    private final long replicaRetryDelay;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
 
     public ConnectionManager(DataSourceConfig config) {
+        this.config = config;
+        this.readRouting = config.getReadRouting();
+        this.readYourWritesWindow = config.getReadYourWritesWindow();
+        this.replicaRetryDelay = config.getReplicaRetryDelay();
+
+        dataSource = createDataSource(config, config.getJdbcUrl(), config.getUsername(), config.getPassword(),
+                "helios-primary", false);
+        primary = new DataSourceNode("helios-primary", dataSource);
+
+        List<DataSourceNode> nodes = new ArrayList<>();
+        try {
+            for (ReplicaConfig replica : config.getReplicas()) {
+                String name = "helios-replica-" + (nodes.size() + 1);
+                nodes.add(new DataSourceNode(name, createDataSource(config, replica.getJdbcUrl(),
+                        replica.getUsername() != null ? replica.getUsername() : config.getUsername(),
+                        replica.getPassword() != null ? replica.getPassword() : config.getPassword(),
+                        name, true)));
+            }
+        } catch (RuntimeException e) {
+            nodes.forEach(DataSourceNode::close);
+            dataSource.close();
+            throw e;
+        }
+        this.replicas = Collections.unmodifiableList(nodes);
+
+        log.info("Connection pool has been initialized successfully ({} replicas)", replicas.size());
+    }
+
+    private static HikariDataSource createDataSource(DataSourceConfig config, String jdbcUrl, String username,
+                                                     String password, String poolName, boolean readOnly) {
         HikariConfig hikariConfig = new HikariConfig();
 
-        hikariConfig.setJdbcUrl(config.getJdbcUrl());
-        hikariConfig.setUsername(config.getUsername());
-        hikariConfig.setPassword(config.getPassword());
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
 
         // Configuration spécifique à PostgreSQL
         hikariConfig.setDriverClassName("org.postgresql.Driver");
@@ -35,23 +83,170 @@ public class ConnectionManager {
 
         // Autres propriétés utiles
         hikariConfig.setAutoCommit(false);
+        hikariConfig.setReadOnly(readOnly);
         hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
         hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
         hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
 
-        dataSource = new HikariDataSource(hikariConfig);
-        log.info("Connection pool has been initialized successfully");
+        return new HikariDataSource(hikariConfig);
     }
 
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
+    /**
+     * Opens a connection to the primary outside of the pool, for long-lived sessions such as
+     * {@code LISTEN} that would otherwise pin a pooled connection forever. The caller closes it.
+     */
+    public Connection openDedicatedConnection() throws SQLException {
+        Properties properties = new Properties();
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        if (config.getSchema() != null && !config.getSchema().isEmpty()) {
+            properties.setProperty("currentSchema", config.getSchema());
+        }
+        return DriverManager.getConnection(config.getJdbcUrl(), properties);
+    }
+
+    /**
+     * Returns a connection for a read-only unit of work. Replicas are picked according to the
+     * configured {@link ReadRoutingStrategy}; the primary is used when there are no replicas, when
+     * none of them can hand out a connection, or when the current thread wrote less than
+     * {@code readYourWritesWindow} milliseconds ago, so that it always sees its own writes.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || isStickyToPrimary()) {
+            return getConnection();
+        }
+
+        for (DataSourceNode replica : orderReplicas()) {
+            try {
+                return getConnection(replica);
+            } catch (SQLException ignored) {
+                // Déjà signalé, on passe au réplica suivant
+            }
+        }
+
+        log.debug("No replica available, reading from primary");
+        return getConnection();
+    }
+
+    /**
+     * Returns the nodes a read-only unit of work may run on, in routing order: the available
+     * replicas, then the primary. Only the primary is returned while the current thread must read
+     * its own writes.
+     */
+    public List<DataSourceNode> getReadCandidates() {
+        if (replicas.isEmpty() || isStickyToPrimary()) {
+            return List.of(primary);
+        }
+        List<DataSourceNode> candidates = orderReplicas();
+        candidates.add(primary);
+        return candidates;
+    }
+
+    /**
+     * Returns a connection from the given node. A replica that cannot hand one out is skipped by
+     * the read routing until its retry delay has elapsed.
+     */
+    public Connection getConnection(DataSourceNode node) throws SQLException {
+        try {
+            return node.getDataSource().getConnection();
+        } catch (SQLException e) {
+            if (node != primary) {
+                node.markUnavailable(replicaRetryDelay);
+                log.warn("Replica {} unavailable, retrying in {} ms", node.getName(), replicaRetryDelay, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records that the current thread has just written to the primary.
+     */
+    public void markWrite() {
+        if (!replicas.isEmpty() && readYourWritesWindow > 0) {
+            lastWrite.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Sends the current thread's reads back to the replicas, e.g. at the end of a request.
+     */
+    public void clearReadYourWrites() {
+        lastWrite.remove();
+    }
+
+    private boolean isStickyToPrimary() {
+        Long writtenAt = lastWrite.get();
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt < readYourWritesWindow) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+
+    private List<DataSourceNode> orderReplicas() {
+        List<DataSourceNode> available = new ArrayList<>(replicas.size());
+        for (DataSourceNode replica : replicas) {
+            if (replica.isAvailable()) {
+                available.add(replica);
+            }
+        }
+        if (available.size() <= 1) {
+            return available;
+        }
+
+        if (readRouting == ReadRoutingStrategy.LEAST_ACTIVE_CONNECTIONS) {
+            available.sort((a, b) -> Integer.compare(a.getActiveConnections(), b.getActiveConnections()));
+        } else {
+            Collections.rotate(available, -Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+        }
+        return available;
+    }
+
+    public int getMaxPoolSize() {
+        return config.getMaxPoolSize();
+    }
+
     public DataSource getDataSource() {
         return dataSource;
     }
 
+    public List<DataSourceNode> getReplicas() {
+        return replicas;
+    }
+
+    public PoolStats getPoolStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return PoolStats.EMPTY;
+        }
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection());
+    }
+
+    public Map<String, PoolStats> getReplicaPoolStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        for (DataSourceNode replica : replicas) {
+            stats.put(replica.getName(), replica.getPoolStats());
+        }
+        return stats;
+    }
+
     public void close() {
+        replicas.forEach(DataSourceNode::close);
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             log.info("Connection pool has been closed successfully");
@@ -3,6 +3,9 @@ package fr.nassime.helios.connection;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Builder
 public class DataSourceConfig {
@@ -22,4 +25,41 @@ public class DataSourceConfig {
     private long idleTimeout = 600000;
     @Builder.Default
     private long maxLifetime = 1800000;
+    @Builder.Default
+    private int batchSize = 500;
+    @Builder.Default
+    private boolean metricsEnabled = true;
+
+    @Builder.Default
+    private List<String> entityPackages = new ArrayList<>();
+    @Builder.Default
+    private boolean validateSchema = false;
+    @Builder.Default
+    private boolean warmUp = false;
+    @Builder.Default
+    private boolean validateNamedQueries = true;
+
+    @Builder.Default
+    private List<ReplicaConfig> replicas = new ArrayList<>();
+    @Builder.Default
+    private ReadRoutingStrategy readRouting = ReadRoutingStrategy.ROUND_ROBIN;
+    @Builder.Default
+    private long readYourWritesWindow = 1000;
+    @Builder.Default
+    private long replicaRetryDelay = 5000;
+    @Builder.Default
+    private boolean hedgedReads = false;
+    @Builder.Default
+    private double hedgePercentile = 0.95;
+    @Builder.Default
+    private long hedgeMinDelay = 2;
+    @Builder.Default
+    private double hedgeMaxRate = 0.1;
+
+    @Builder.Default
+    private boolean invalidationEnabled = false;
+    @Builder.Default
+    private String invalidationChannel = "helios_invalidation";
+    @Builder.Default
+    private long invalidationCoalesceWindow = 50;
 }
@@ -0,0 +1,50 @@
+package fr.nassime.helios.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One pooled data source of the cluster, with a simple circuit breaker: a node that failed to hand
+ * out a connection is skipped by the read routing until its retry delay has elapsed.
+ */
+@RequiredArgsConstructor
+public class DataSourceNode {
+    @Getter
+    private final String name;
+    @Getter
+    private final HikariDataSource dataSource;
+    private volatile long unavailableUntil;
+
+    boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil && !dataSource.isClosed();
+    }
+
+    void markUnavailable(long retryDelayMillis) {
+        unavailableUntil = System.currentTimeMillis() + retryDelayMillis;
+    }
+
+    int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+
+    public PoolStats getPoolStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return PoolStats.EMPTY;
+        }
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection());
+    }
+
+    void close() {
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package fr.nassime.helios.connection;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class PoolStats {
+    public static final PoolStats EMPTY = new PoolStats(0, 0, 0, 0);
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+}
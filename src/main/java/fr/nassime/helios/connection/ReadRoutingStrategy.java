@@ -0,0 +1,6 @@
+package fr.nassime.helios.connection;
+
+public enum ReadRoutingStrategy {
+    ROUND_ROBIN,
+    LEAST_ACTIVE_CONNECTIONS
+}
@@ -0,0 +1,16 @@
+package fr.nassime.helios.connection;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A read replica. Credentials default to the primary's when left empty, pool sizing and timeouts
+ * always come from the enclosing {@link DataSourceConfig}.
+ */
+@Data
+@Builder
+public class ReplicaConfig {
+    private String jdbcUrl;
+    private String username;
+    private String password;
+}
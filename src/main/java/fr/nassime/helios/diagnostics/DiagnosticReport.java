@@ -0,0 +1,32 @@
+package fr.nassime.helios.diagnostics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class DiagnosticReport {
+    private final String scopeName;
+    private final int statementCount;
+    private final int slowStatementCount;
+    private final List<RepeatedStatement> repeatedStatements;
+    private final Map<String, Integer> relationLoads;
+
+    public boolean hasRepeatedStatements() {
+        return !repeatedStatements.isEmpty();
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class RepeatedStatement {
+        private final String sql;
+        private final int executions;
+        private final int distinctParameterSets;
+    }
+}
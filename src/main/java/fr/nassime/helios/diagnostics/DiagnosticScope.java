@@ -0,0 +1,89 @@
+package fr.nassime.helios.diagnostics;
+
+import fr.nassime.helios.metrics.StatementEvent;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DiagnosticScope implements AutoCloseable {
+    // Bounds the memory kept per statement shape; the distinct parameter set count in reports stops here
+    private static final int MAX_TRACKED_PARAMETER_SETS = 16;
+
+    @Getter
+    private final String name;
+    private final QueryDiagnostics diagnostics;
+    private final DiagnosticScope parent;
+    private final Map<String, StatementShape> shapes = new LinkedHashMap<>();
+    private final Map<String, Integer> relationLoads = new LinkedHashMap<>();
+    @Getter
+    private int statementCount;
+    private int slowStatementCount;
+    private boolean closed;
+
+    DiagnosticScope(String name, QueryDiagnostics diagnostics, DiagnosticScope parent) {
+        this.name = name;
+        this.diagnostics = diagnostics;
+        this.parent = parent;
+    }
+
+    DiagnosticScope getParent() {
+        return parent;
+    }
+
+    StatementShape record(StatementEvent event, boolean slow) {
+        statementCount++;
+        if (slow) {
+            slowStatementCount++;
+        }
+
+        StatementShape shape = shapes.computeIfAbsent(event.getSql(), sql -> new StatementShape());
+        shape.executions++;
+        if (shape.parameterSets.size() < MAX_TRACKED_PARAMETER_SETS) {
+            shape.parameterSets.add(new ArrayList<>(event.getParameters()));
+        }
+        return shape;
+    }
+
+    void recordRelationLoad(String relation) {
+        relationLoads.merge(relation, 1, Integer::sum);
+    }
+
+    public DiagnosticReport report(int repeatedStatementThreshold) {
+        List<DiagnosticReport.RepeatedStatement> repeated = new ArrayList<>();
+        shapes.forEach((sql, shape) -> {
+            if (shape.isRepeated(repeatedStatementThreshold)) {
+                repeated.add(new DiagnosticReport.RepeatedStatement(sql, shape.executions, shape.parameterSets.size()));
+            }
+        });
+        return new DiagnosticReport(name, statementCount, slowStatementCount, repeated, Map.copyOf(relationLoads));
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            diagnostics.closeScope(this);
+        }
+    }
+
+    static class StatementShape {
+        private final Set<List<Object>> parameterSets = new HashSet<>();
+        private int executions;
+        private boolean reported;
+
+        boolean isRepeated(int threshold) {
+            return executions >= threshold && parameterSets.size() > 1;
+        }
+
+        boolean markReported() {
+            boolean first = !reported;
+            reported = true;
+            return first;
+        }
+    }
+}
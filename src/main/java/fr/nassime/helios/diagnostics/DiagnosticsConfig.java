@@ -0,0 +1,19 @@
+package fr.nassime.helios.diagnostics;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DiagnosticsConfig {
+    @Builder.Default
+    private long slowQueryThreshold = 1000;
+    @Builder.Default
+    private int repeatedStatementThreshold = 5;
+    @Builder.Default
+    private int maxQueriesPerScope = 0;
+    @Builder.Default
+    private boolean failOnViolation = false;
+    @Builder.Default
+    private boolean logParameters = true;
+}
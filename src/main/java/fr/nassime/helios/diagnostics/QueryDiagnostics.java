@@ -0,0 +1,101 @@
+package fr.nassime.helios.diagnostics;
+
+import fr.nassime.helios.metrics.HeliosInstrumentation;
+import fr.nassime.helios.metrics.StatementEvent;
+import fr.nassime.helios.relation.RelationInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class QueryDiagnostics implements HeliosInstrumentation {
+    @Getter
+    private final DiagnosticsConfig config;
+    private final long slowQueryThresholdNanos;
+    private final ThreadLocal<DiagnosticScope> currentScope = new ThreadLocal<>();
+
+    public QueryDiagnostics(DiagnosticsConfig config) {
+        this.config = config;
+        this.slowQueryThresholdNanos = config.getSlowQueryThreshold() > 0
+                ? TimeUnit.MILLISECONDS.toNanos(config.getSlowQueryThreshold())
+                : Long.MAX_VALUE;
+    }
+
+    public DiagnosticScope openScope(String name) {
+        DiagnosticScope scope = new DiagnosticScope(name, this, currentScope.get());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    public DiagnosticScope getCurrentScope() {
+        return currentScope.get();
+    }
+
+    @Override
+    public void onStatement(StatementEvent event) {
+        boolean slow = event.getTotalNanos() >= slowQueryThresholdNanos;
+        if (slow) {
+            logSlowStatement(event);
+        }
+
+        DiagnosticScope scope = currentScope.get();
+        if (scope == null) {
+            return;
+        }
+
+        DiagnosticScope.StatementShape shape = scope.record(event, slow);
+        if (shape.isRepeated(config.getRepeatedStatementThreshold()) && shape.markReported()) {
+            log.warn("Possible N+1 in scope '{}': statement executed {} times with different parameters: {}",
+                    scope.getName(), config.getRepeatedStatementThreshold(), event.getSql());
+        }
+
+        int budget = config.getMaxQueriesPerScope();
+        if (budget > 0 && scope.getStatementCount() > budget) {
+            String message = "Query budget exceeded in scope '" + scope.getName() + "': "
+                    + scope.getStatementCount() + " statements, budget is " + budget;
+            if (config.isFailOnViolation()) {
+                throw new QueryDiagnosticsException(message, scope.report(config.getRepeatedStatementThreshold()));
+            }
+            if (scope.getStatementCount() == budget + 1) {
+                log.warn(message);
+            }
+        }
+    }
+
+    @Override
+    public void onRelationLoad(Class<?> ownerClass, RelationInfo relationInfo) {
+        DiagnosticScope scope = currentScope.get();
+        if (scope != null) {
+            scope.recordRelationLoad(ownerClass.getSimpleName() + "." + relationInfo.getField().getName());
+        }
+    }
+
+    void closeScope(DiagnosticScope scope) {
+        if (currentScope.get() != scope) {
+            log.warn("Diagnostic scope '{}' closed out of order", scope.getName());
+        }
+        if (scope.getParent() == null) {
+            currentScope.remove();
+        } else {
+            currentScope.set(scope.getParent());
+        }
+
+        DiagnosticReport report = scope.report(config.getRepeatedStatementThreshold());
+        log.debug("Diagnostic scope '{}' issued {} statements", scope.getName(), report.getStatementCount());
+
+        if (report.hasRepeatedStatements() && config.isFailOnViolation()) {
+            throw new QueryDiagnosticsException("Repeated statements detected in scope '" + scope.getName() + "': "
+                    + report.getRepeatedStatements(), report);
+        }
+    }
+
+    private void logSlowStatement(StatementEvent event) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(event.getTotalNanos());
+        if (config.isLogParameters()) {
+            log.warn("Slow statement ({} ms): {} with parameters {}", millis, event.getSql(), event.getParameters());
+        } else {
+            log.warn("Slow statement ({} ms): {}", millis, event.getSql());
+        }
+    }
+}
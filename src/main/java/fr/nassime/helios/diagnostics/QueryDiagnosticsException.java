@@ -0,0 +1,14 @@
+package fr.nassime.helios.diagnostics;
+
+import fr.nassime.helios.exception.HeliosException;
+import lombok.Getter;
+
+@Getter
+public class QueryDiagnosticsException extends HeliosException {
+    private final DiagnosticReport report;
+
+    public QueryDiagnosticsException(String message, DiagnosticReport report) {
+        super(message);
+        this.report = report;
+    }
+}
@@ -0,0 +1,14 @@
+package fr.nassime.helios.exception;
+
+/**
+ * Thrown when an operation runs past its deadline or is cancelled by its caller.
+ */
+public class QueryTimeoutException extends HeliosException {
+    public QueryTimeoutException(String message) {
+        super(message);
+    }
+
+    public QueryTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,371 @@
+package fr.nassime.helios.export;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.metrics.StatementEvent;
+import fr.nassime.helios.query.QueryBuilder;
+import fr.nassime.helios.types.EnumConverter;
+import fr.nassime.helios.types.SqlNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports query results with {@code COPY (...) TO STDOUT}. Rows are never mapped: the bytes sent by
+ * the server are packed into direct buffers that a writer thread drains to the output, so reading
+ * from the database and writing to disk overlap.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CopyExporter {
+    private static final Object NEW_PART = new Object();
+    private static final Object END = new Object();
+    // Signature, flags et longueur d'extension en tête du format binaire
+    private static final int BINARY_HEADER_LENGTH = 19;
+
+    private final HeliosORM orm;
+
+    /**
+     * Writes the result to the channel, which is left open. Returns the number of rows exported.
+     */
+    public long export(QueryBuilder<?> query, WritableByteChannel channel, ExportConfig config) {
+        if (config.getMaxPartSize() > 0) {
+            throw new HeliosException("Part files can only be written when exporting to a path");
+        }
+        return copy(query, config, part -> channel, false);
+    }
+
+    /**
+     * Writes the result to {@code target}, or to {@code name-00001.ext}, {@code name-00002.ext}...
+     * next to it when a maximum part size is configured. Returns the files written.
+     */
+    public List<Path> export(QueryBuilder<?> query, Path target, ExportConfig config) {
+        if (config.getMaxPartSize() > 0 && config.getFormat() == ExportFormat.BINARY) {
+            throw new HeliosException("The binary COPY format cannot be split into part files");
+        }
+
+        List<Path> files = Collections.synchronizedList(new ArrayList<>());
+        copy(query, config, part -> {
+            Path path = config.getMaxPartSize() > 0 ? partPath(target, part) : target;
+            files.add(path);
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }, true);
+        return new ArrayList<>(files);
+    }
+
+    private long copy(QueryBuilder<?> query, ExportConfig config, PartOpener opener, boolean closeChannels) {
+        String sql = "COPY (" + inline(query) + ") TO STDOUT " + options(config);
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = true;
+
+        try (Connection connection = orm.getReadConnection()) {
+            CopyOut copyOut = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql);
+            Pipeline pipeline = new Pipeline(config, opener, closeChannels);
+            try {
+                rows = pump(copyOut, pipeline, config);
+                pipeline.finish();
+                failed = false;
+            } finally {
+                if (copyOut.isActive()) {
+                    copyOut.cancelCopy();
+                }
+                pipeline.abort();
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new HeliosException("Error during COPY export", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            orm.getInstrumentation().onStatement(new StatementEvent(sql, query.getParameters(), 0, elapsed, 0,
+                    (int) Math.min(rows, Integer.MAX_VALUE), true, failed));
+        }
+
+        log.debug("Exported {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    // Chaque message CopyData contient exactement une ligne (hors fin du format binaire), les coupures
+    // tombent donc entre deux lignes
+    private long pump(CopyOut copyOut, Pipeline pipeline, ExportConfig config) throws SQLException {
+        boolean header = config.isHeader() && config.getFormat() == ExportFormat.CSV;
+        boolean binary = config.getFormat() == ExportFormat.BINARY;
+        boolean first = true;
+        long maxPartSize = config.getMaxPartSize();
+        byte[] headerRow = null;
+        long partBytes = 0;
+        long rows = 0;
+
+        ByteBuffer buffer = pipeline.nextBuffer();
+        byte[] row;
+        while ((row = copyOut.readFromCopy()) != null) {
+            if (header && headerRow == null) {
+                headerRow = row;
+            } else {
+                long headerBytes = headerRow != null ? headerRow.length : 0;
+                if (maxPartSize > 0 && partBytes > headerBytes && partBytes + row.length > maxPartSize) {
+                    pipeline.submit(buffer);
+                    pipeline.newPart();
+                    buffer = pipeline.nextBuffer();
+                    partBytes = 0;
+                    if (headerRow != null) {
+                        buffer.put(headerRow);
+                        partBytes = headerRow.length;
+                    }
+                }
+                if (!(binary && isBinaryTrailer(row, first))) {
+                    rows++;
+                }
+            }
+            first = false;
+
+            if (row.length > buffer.remaining()) {
+                pipeline.submit(buffer);
+                buffer = pipeline.nextBuffer();
+                if (row.length > buffer.remaining()) {
+                    pipeline.submit(ByteBuffer.wrap(row));
+                    partBytes += row.length;
+                    continue;
+                }
+            }
+            buffer.put(row);
+            partBytes += row.length;
+        }
+        pipeline.submit(buffer);
+        return rows;
+    }
+
+    // Le format binaire se termine par un message à part contenant -1 en int16, précédé de l'en-tête
+    // quand le résultat est vide
+    private static boolean isBinaryTrailer(byte[] message, boolean first) {
+        int offset = first ? BINARY_HEADER_LENGTH : 0;
+        return message.length == offset + 2 && message[offset] == (byte) 0xFF && message[offset + 1] == (byte) 0xFF;
+    }
+
+    private static String options(ExportConfig config) {
+        return switch (config.getFormat()) {
+            case CSV -> "WITH (FORMAT csv, HEADER " + config.isHeader() + ")";
+            case TEXT -> "WITH (FORMAT text)";
+            case BINARY -> "WITH (FORMAT binary)";
+        };
+    }
+
+    private static Path partPath(Path target, int part) {
+        String name = target.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String suffix = String.format("-%05d", part);
+        String partName = dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix;
+        return target.resolveSibling(partName);
+    }
+
+    /**
+     * {@code COPY} does not accept bind parameters, so the query's parameters are rendered as SQL
+     * literals. Only scalar values with an unambiguous text form are supported.
+     */
+    static String inline(QueryBuilder<?> query) {
+        String sql = query.getQuery();
+        List<Object> parameters = query.getParameters();
+        StringBuilder inlined = new StringBuilder(sql.length() + parameters.size() * 8);
+        int parameter = 0;
+        char quote = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                if (parameter >= parameters.size()) {
+                    throw new HeliosException("Missing parameter " + (parameter + 1) + " for query: " + sql);
+                }
+                inlined.append(literal(parameters.get(parameter++)));
+                continue;
+            }
+            inlined.append(c);
+        }
+        return inlined.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value == null || value instanceof SqlNull) {
+            return "NULL";
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof java.math.BigDecimal) {
+            return value.toString();
+        } else if (value instanceof Enum<?> constant) {
+            return quote(EnumConverter.labelOf(constant));
+        } else if (value instanceof CharSequence || value instanceof Character || value instanceof UUID
+                || value instanceof Temporal || value instanceof Double || value instanceof Float) {
+            return quote(value.toString());
+        }
+        throw new HeliosException("Cannot inline a parameter of type " + value.getClass().getName()
+                + " into a COPY statement");
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    @FunctionalInterface
+    private interface PartOpener {
+        WritableByteChannel open(int part) throws IOException;
+    }
+
+    /**
+     * Hands filled buffers to a writer thread and recycles them once written. Parts are opened
+     * lazily, so an empty result still produces one (empty) file.
+     */
+    private static final class Pipeline {
+        private final BlockingQueue<ByteBuffer> free;
+        private final BlockingQueue<Object> pending = new LinkedBlockingQueue<>();
+        private final PartOpener opener;
+        private final boolean closeChannels;
+        private final Thread writer;
+        private volatile Exception failure;
+        private WritableByteChannel channel;
+        private int part = 1;
+
+        private Pipeline(ExportConfig config, PartOpener opener, boolean closeChannels) {
+            this.opener = opener;
+            this.closeChannels = closeChannels;
+            this.free = new ArrayBlockingQueue<>(Math.max(2, config.getBuffers()));
+            for (int i = 0; i < Math.max(2, config.getBuffers()); i++) {
+                free.add(ByteBuffer.allocateDirect(config.getBufferSize()));
+            }
+            this.writer = new Thread(this::write, "helios-export");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        ByteBuffer nextBuffer() {
+            try {
+                while (true) {
+                    checkFailure();
+                    ByteBuffer buffer = free.poll(100, TimeUnit.MILLISECONDS);
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HeliosException("COPY export interrupted", e);
+            }
+        }
+
+        void submit(ByteBuffer buffer) {
+            buffer.flip();
+            pending.add(buffer);
+        }
+
+        void newPart() {
+            pending.add(NEW_PART);
+        }
+
+        void finish() {
+            pending.add(END);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HeliosException("COPY export interrupted", e);
+            }
+            checkFailure();
+        }
+
+        void abort() {
+            if (writer.isAlive()) {
+                pending.clear();
+                pending.add(END);
+                writer.interrupt();
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void checkFailure() {
+            if (failure != null) {
+                throw new HeliosException("Error while writing the COPY export", failure);
+            }
+        }
+
+        private void write() {
+            try {
+                while (true) {
+                    Object next = pending.take();
+                    if (next == END) {
+                        if (channel == null && part == 1) {
+                            channel = opener.open(part);
+                        }
+                        closeChannel();
+                        return;
+                    } else if (next == NEW_PART) {
+                        if (channel == null) {
+                            channel = opener.open(part);
+                        }
+                        closeChannel();
+                        part++;
+                    } else {
+                        ByteBuffer buffer = (ByteBuffer) next;
+                        if (channel == null) {
+                            channel = opener.open(part);
+                        }
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        if (buffer.isDirect()) {
+                            buffer.clear();
+                            free.add(buffer);
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    closeChannel();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+
+        private void closeChannel() throws IOException {
+            if (channel != null) {
+                if (closeChannels) {
+                    channel.close();
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package fr.nassime.helios.export;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExportConfig {
+    @Builder.Default
+    private ExportFormat format = ExportFormat.CSV;
+    /**
+     * Whether CSV output starts with a header line. It is repeated at the top of every part file.
+     */
+    @Builder.Default
+    private boolean header = true;
+    /**
+     * Size of each direct buffer filled from the COPY stream before being written out.
+     */
+    @Builder.Default
+    private int bufferSize = 1 << 20;
+    /**
+     * Number of buffers in flight between the COPY reader and the file writer.
+     */
+    @Builder.Default
+    private int buffers = 4;
+    /**
+     * Maximum size in bytes of a part file, rows are never split across parts. {@code 0} writes a
+     * single file. Not supported for the binary format.
+     */
+    @Builder.Default
+    private long maxPartSize = 0;
+}
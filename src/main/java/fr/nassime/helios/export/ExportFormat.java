@@ -0,0 +1,7 @@
+package fr.nassime.helios.export;
+
+public enum ExportFormat {
+    CSV,
+    TEXT,
+    BINARY
+}
@@ -0,0 +1,188 @@
+package fr.nassime.helios.hedge;
+
+import fr.nassime.helios.connection.ConnectionManager;
+import fr.nassime.helios.connection.DataSourceConfig;
+import fr.nassime.helios.connection.DataSourceNode;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.metrics.HeliosInstrumentation;
+import fr.nassime.helios.transaction.Deadline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs short read-only units of work on the first read candidate and, when it has not answered
+ * within the configured percentile of the recent latencies of the same kind of read, runs them
+ * again on the next candidate. The first result wins and the other attempt is cancelled on the
+ * server. Hedges are limited to a fraction of the reads so that a slow cluster is not loaded twice.
+ */
+@Slf4j
+public class HedgedReadExecutor {
+    private final ConnectionManager connectionManager;
+    private final Executor executor;
+    private final HeliosInstrumentation instrumentation;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double maxRate;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+
+    public HedgedReadExecutor(ConnectionManager connectionManager, Executor executor,
+                              HeliosInstrumentation instrumentation, DataSourceConfig config) {
+        this.connectionManager = connectionManager;
+        this.executor = executor;
+        this.instrumentation = instrumentation;
+        this.percentile = config.getHedgePercentile();
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getHedgeMinDelay());
+        this.maxRate = config.getHedgeMaxRate();
+    }
+
+    /**
+     * Runs the operation, which receives a connection in a fresh read-only unit of work and must
+     * not have side effects, since it may run twice. Reads with the same key share their latency
+     * statistics.
+     */
+    public <T> T execute(String key, Function<Connection, T> operation) {
+        List<DataSourceNode> candidates = connectionManager.getReadCandidates();
+        if (candidates.size() < 2) {
+            return runOn(candidates.get(0), operation);
+        }
+
+        LatencyWindow window = latencies.computeIfAbsent(key, k -> new LatencyWindow(percentile));
+        Deadline caller = Deadline.current();
+        long start = System.nanoTime();
+        reads.increment();
+
+        Attempt<T> first = launch(candidates.get(0), operation, caller);
+        Attempt<T> hedge = null;
+        try {
+            try {
+                T result = first.future.get(hedgeDelay(window), TimeUnit.NANOSECONDS);
+                window.record(System.nanoTime() - start);
+                instrumentation.onHedgedRead(false, false);
+                return result;
+            } catch (TimeoutException e) {
+                if (!withinBudget()) {
+                    T result = first.future.get();
+                    window.record(System.nanoTime() - start);
+                    instrumentation.onHedgedRead(false, false);
+                    return result;
+                }
+            }
+
+            hedges.increment();
+            hedge = launch(candidates.get(1), operation, caller);
+            log.debug("Hedging {} on {} after {} µs", key, candidates.get(1).getName(),
+                    (System.nanoTime() - start) / 1000);
+
+            Attempt<T> winner = firstSuccess(first, hedge).get();
+            window.record(System.nanoTime() - start);
+            instrumentation.onHedgedRead(true, winner == hedge);
+            return winner.future.join();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NodeUnavailableException unavailable) {
+                // Comme le routage des lectures : un nœud injoignable cède la place au candidat suivant
+                T result = fallBack(candidates, hedge == null ? 1 : 2, operation, unavailable);
+                instrumentation.onHedgedRead(hedge != null, false);
+                return result;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new HeliosException("Error during hedged read " + key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HeliosException("Interrupted during hedged read " + key, e);
+        } finally {
+            // Le perdant est annulé côté serveur, sa transaction est annulée et sa connexion rendue
+            first.deadline.cancel();
+            if (hedge != null) {
+                hedge.deadline.cancel();
+            }
+        }
+    }
+
+    // Les candidats restants sont essayés un à un ; l'erreur ne remonte que si tous sont injoignables
+    private <T> T fallBack(List<DataSourceNode> candidates, int from, Function<Connection, T> operation,
+                           NodeUnavailableException failure) {
+        for (int i = from; i < candidates.size(); i++) {
+            try {
+                return runOn(candidates.get(i), operation);
+            } catch (NodeUnavailableException e) {
+                e.addSuppressed(failure);
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private long hedgeDelay(LatencyWindow window) {
+        return Math.max(minDelayNanos, window.percentileNanos());
+    }
+
+    private boolean withinBudget() {
+        return hedges.sum() < maxRate * reads.sum();
+    }
+
+    private <T> Attempt<T> launch(DataSourceNode node, Function<Connection, T> operation, Deadline caller) {
+        Deadline deadline = Deadline.cancellable();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> caller == null
+                ? deadline.run(() -> runOn(node, operation))
+                : caller.run(() -> deadline.run(() -> runOn(node, operation))), executor);
+        return new Attempt<>(deadline, future);
+    }
+
+    private <T> T runOn(DataSourceNode node, Function<Connection, T> operation) {
+        long start = System.nanoTime();
+        try (Connection connection = connectionManager.getConnection(node)) {
+            instrumentation.onConnectionAcquired(System.nanoTime() - start);
+            return operation.apply(connection);
+        } catch (SQLException e) {
+            throw new NodeUnavailableException("Unable to read from " + node.getName(), e);
+        }
+    }
+
+    // Le premier succès l'emporte ; l'échec n'est remonté que si les deux tentatives échouent
+    private static <T> CompletableFuture<Attempt<T>> firstSuccess(Attempt<T> first, Attempt<T> second) {
+        CompletableFuture<Attempt<T>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (Attempt<T> attempt : List.of(first, second)) {
+            attempt.future.whenComplete((result, error) -> {
+                if (error == null) {
+                    winner.complete(attempt);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error instanceof CompletionException
+                            && error.getCause() != null ? error.getCause() : error);
+                }
+            });
+        }
+        return winner;
+    }
+
+    private static final class NodeUnavailableException extends HeliosException {
+        private NodeUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Attempt<T> {
+        private final Deadline deadline;
+        private final CompletableFuture<T> future;
+    }
+}
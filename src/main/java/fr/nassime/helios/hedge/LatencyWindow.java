@@ -0,0 +1,43 @@
+package fr.nassime.helios.hedge;
+
+import java.util.Arrays;
+
+/**
+ * The last latencies of one kind of read, in a ring buffer. The percentile is recomputed every
+ * few samples rather than on each read.
+ */
+class LatencyWindow {
+    private static final int SIZE = 256;
+    private static final int MIN_SAMPLES = 32;
+    private static final int REFRESH_INTERVAL = 16;
+
+    private final double percentile;
+    private final long[] samples = new long[SIZE];
+    private int next;
+    private int count;
+    private volatile long cachedPercentile = Long.MAX_VALUE;
+
+    LatencyWindow(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SIZE;
+        count = Math.min(count + 1, SIZE);
+        if (count >= MIN_SAMPLES && next % REFRESH_INTERVAL == 0) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * count) - 1;
+            cachedPercentile = sorted[Math.max(0, Math.min(count - 1, rank))];
+        }
+    }
+
+    /**
+     * Returns the configured percentile of the recent latencies, or {@link Long#MAX_VALUE} until
+     * enough reads have been seen.
+     */
+    long percentileNanos() {
+        return cachedPercentile;
+    }
+}
@@ -0,0 +1,13 @@
+package fr.nassime.helios.id;
+
+import java.sql.Connection;
+
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * Returns the next id. The connection is only used when the generator has to talk to the
+     * database, e.g. to allocate a new block of sequence values.
+     */
+    Object nextId(Connection connection);
+}
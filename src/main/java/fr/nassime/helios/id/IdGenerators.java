@@ -0,0 +1,48 @@
+package fr.nassime.helios.id;
+
+import fr.nassime.helios.annotation.Id;
+import fr.nassime.helios.exception.HeliosException;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+
+public final class IdGenerators {
+
+    private IdGenerators() {
+    }
+
+    /**
+     * Builds the client-side generator of an id field, or returns {@code null} when the database
+     * generates the id ({@link Id.Strategy#IDENTITY}) or the application assigns it.
+     */
+    public static IdGenerator forField(Field idField, String tableName, String idColumn) {
+        Id id = idField.getAnnotation(Id.class);
+        if (id == null || id.strategy() == Id.Strategy.IDENTITY) {
+            return null;
+        }
+
+        Class<?> type = idField.getType();
+        return switch (id.strategy()) {
+            case SEQUENCE -> {
+                String sequence = id.sequence().isEmpty() ? tableName + "_" + idColumn + "_seq" : id.sequence();
+                PooledSequenceGenerator generator = new PooledSequenceGenerator(sequence, id.allocationSize());
+                if (type == Long.class || type == long.class) {
+                    yield generator;
+                } else if (type == Integer.class || type == int.class) {
+                    yield connection -> Math.toIntExact(generator.nextValue(connection));
+                }
+                throw new HeliosException("Sequence ids must be long or int: " + idField);
+            }
+            case UUID_V7 -> {
+                UuidV7Generator generator = new UuidV7Generator();
+                if (type == UUID.class) {
+                    yield generator;
+                } else if (type == String.class) {
+                    yield connection -> generator.next().toString();
+                }
+                throw new HeliosException("UUIDv7 ids must be UUID or String: " + idField);
+            }
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package fr.nassime.helios.id;
+
+import fr.nassime.helios.exception.HeliosException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out sequence values from blocks of {@code allocationSize} fetched in a single query. Ids are
+ * taken from the current block with a lock-free counter; only the refill is synchronized. Unused
+ * values of a block are lost on shutdown, like with any pooled sequence.
+ */
+public class PooledSequenceGenerator implements IdGenerator {
+    private final String sequenceName;
+    private final int allocationSize;
+    private final String allocationQuery;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(new long[0]));
+
+    public PooledSequenceGenerator(String sequenceName, int allocationSize) {
+        if (allocationSize < 1) {
+            throw new HeliosException("Allocation size must be positive for sequence " + sequenceName);
+        }
+        this.sequenceName = sequenceName;
+        this.allocationSize = allocationSize;
+        // generate_series marche quel que soit l'INCREMENT BY de la séquence
+        this.allocationQuery = "SELECT nextval(?) FROM generate_series(1, " + allocationSize + ")";
+    }
+
+    @Override
+    public Object nextId(Connection connection) {
+        return nextValue(connection);
+    }
+
+    public long nextValue(Connection connection) {
+        while (true) {
+            Block block = current.get();
+            int index = block.cursor.getAndIncrement();
+            if (index < block.values.length) {
+                return block.values[index];
+            }
+
+            synchronized (this) {
+                if (current.get() == block) {
+                    current.set(new Block(allocate(connection)));
+                }
+            }
+        }
+    }
+
+    private long[] allocate(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(allocationQuery)) {
+            statement.setString(1, sequenceName);
+            long[] values = new long[allocationSize];
+            int count = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    values[count++] = resultSet.getLong(1);
+                }
+            }
+            return values;
+        } catch (SQLException e) {
+            throw new HeliosException("Error while allocating ids from sequence " + sequenceName, e);
+        }
+    }
+
+    private static final class Block {
+        private final long[] values;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Block(long[] values) {
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package fr.nassime.helios.id;
+
+import java.sql.Connection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): 48 bits of Unix milliseconds followed by a 12 bit counter
+ * and 62 random bits. The counter keeps ids generated in the same millisecond strictly increasing,
+ * which keeps B-tree inserts on the right-most page.
+ */
+public class UuidV7Generator implements IdGenerator {
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public Object nextId(Connection connection) {
+        return next();
+    }
+
+    public UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificant = (timestampAndCounter >>> 12) << 16
+                | 0x7000L
+                | (timestampAndCounter & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
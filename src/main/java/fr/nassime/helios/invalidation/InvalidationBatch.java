@@ -0,0 +1,46 @@
+package fr.nassime.helios.invalidation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Invalidations received during one coalescing window. A table appearing in
+ * {@link #getInvalidatedTables()} was changed without a known id and must be evicted entirely.
+ */
+public class InvalidationBatch {
+    private final Map<String, Set<String>> idsByTable = new HashMap<>();
+    private final Set<String> invalidatedTables = new HashSet<>();
+
+    void add(String table, String id) {
+        if (InvalidationBus.ALL.equals(id)) {
+            invalidatedTables.add(table);
+            idsByTable.remove(table);
+        } else if (!invalidatedTables.contains(table)) {
+            idsByTable.computeIfAbsent(table, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    public boolean isEmpty() {
+        return idsByTable.isEmpty() && invalidatedTables.isEmpty();
+    }
+
+    public Set<String> getInvalidatedTables() {
+        return Collections.unmodifiableSet(invalidatedTables);
+    }
+
+    public Map<String, Set<String>> getIdsByTable() {
+        return Collections.unmodifiableMap(idsByTable);
+    }
+
+    public boolean isInvalidated(String table, Object id) {
+        String key = InvalidationBus.tableKey(table);
+        if (invalidatedTables.contains(key)) {
+            return true;
+        }
+        Set<String> ids = idsByTable.get(key);
+        return ids != null && ids.contains(String.valueOf(id));
+    }
+}
@@ -0,0 +1,250 @@
+package fr.nassime.helios.invalidation;
+
+import fr.nassime.helios.connection.ConnectionManager;
+import fr.nassime.helios.connection.DataSourceConfig;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.util.Identifiers;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node invalidation over PostgreSQL {@code LISTEN/NOTIFY}. Writes publish {@code table|id}
+ * notifications inside their transaction, so they are only delivered if it commits. A dedicated,
+ * unpooled connection listens on the channel, coalesces bursts over a short window and hands them to
+ * the registered {@link InvalidationListener}s. Since notifications sent while that connection is
+ * down are lost, listeners are fully flushed after every reconnect.
+ */
+@Slf4j
+public class InvalidationBus implements AutoCloseable {
+    static final String ALL = "*";
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static final Pattern WRITTEN_TABLE = Pattern.compile(
+            "^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM)\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+    private static final int POLL_TIMEOUT = 500;
+    private static final long RECONNECT_DELAY = 1000;
+
+    private final ConnectionManager connectionManager;
+    private final boolean enabled;
+    private final String channel;
+    private final long coalesceWindow;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public InvalidationBus(ConnectionManager connectionManager, DataSourceConfig config) {
+        this.connectionManager = connectionManager;
+        this.enabled = config.isInvalidationEnabled();
+        this.channel = config.getInvalidationChannel();
+        this.coalesceWindow = config.getInvalidationCoalesceWindow();
+
+        if (enabled && !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new HeliosException("Invalid invalidation channel name: " + channel);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void addListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(InvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "helios-invalidation");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    public void publish(Connection connection, String table, Object id) {
+        if (enabled && id != null) {
+            notify(connection, tableKey(table) + "|" + id);
+        }
+    }
+
+    /**
+     * Publishes one notification per id with a single statement.
+     */
+    public void publishAll(Connection connection, String table, Collection<?> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        String key = tableKey(table);
+        String[] payloads = ids.stream().map(id -> key + "|" + id).toArray(String[]::new);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload")) {
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads));
+            statement.execute();
+        } catch (SQLException e) {
+            throw new HeliosException("Error while publishing invalidations for " + table, e);
+        }
+    }
+
+    public void publishTable(Connection connection, String table) {
+        if (enabled) {
+            notify(connection, tableKey(table) + "|" + ALL);
+        }
+    }
+
+    /**
+     * Publishes the table written by a raw SQL statement, or a full flush when it cannot be told
+     * from the statement.
+     */
+    public void publishStatement(Connection connection, String sql) {
+        if (!enabled) {
+            return;
+        }
+        Matcher matcher = WRITTEN_TABLE.matcher(sql);
+        if (matcher.find()) {
+            publishTable(connection, matcher.group(1));
+        } else {
+            notify(connection, ALL + "|" + ALL);
+        }
+    }
+
+    /**
+     * Returns the key a table is published under, whether it comes from {@code @Table} or from raw
+     * SQL: its name folded as PostgreSQL does, lower case outside quotes.
+     */
+    public static String tableKey(String table) {
+        return String.join(".", Identifiers.foldQualified(table));
+    }
+
+    private void notify(Connection connection, String payload) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            throw new HeliosException("Error while publishing invalidation " + payload, e);
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = connectionManager.openDedicatedConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnect) {
+                    log.info("Invalidation listener reconnected, flushing local caches");
+                    dispatchFlush();
+                }
+                reconnect = true;
+                poll(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener connection lost, reconnecting", e);
+                    sleep(RECONNECT_DELAY);
+                }
+            }
+        }
+    }
+
+    private void poll(PGConnection connection) throws SQLException {
+        InvalidationBatch batch = new InvalidationBatch();
+        boolean flush = false;
+        long windowEnd = 0;
+
+        while (running) {
+            boolean pending = flush || !batch.isEmpty();
+            int timeout = pending ? (int) Math.max(1, windowEnd - System.currentTimeMillis()) : POLL_TIMEOUT;
+            PGNotification[] notifications = connection.getNotifications(timeout);
+
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    if (!pending) {
+                        windowEnd = System.currentTimeMillis() + coalesceWindow;
+                        pending = true;
+                    }
+                    String payload = notification.getParameter();
+                    int separator = payload.indexOf('|');
+                    if (separator < 0) {
+                        continue;
+                    }
+                    String table = payload.substring(0, separator);
+                    if (ALL.equals(table)) {
+                        flush = true;
+                    } else {
+                        batch.add(table, payload.substring(separator + 1));
+                    }
+                }
+            }
+
+            if (pending && System.currentTimeMillis() >= windowEnd) {
+                if (flush) {
+                    dispatchFlush();
+                } else {
+                    dispatch(batch);
+                }
+                batch = new InvalidationBatch();
+                flush = false;
+            }
+        }
+    }
+
+    private void dispatch(InvalidationBatch batch) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidate(batch);
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener failed", e);
+            }
+        }
+    }
+
+    private void dispatchFlush() {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onFlush();
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener failed", e);
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(POLL_TIMEOUT * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listenerThread = null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package fr.nassime.helios.invalidation;
+
+public interface InvalidationListener {
+
+    void onInvalidate(InvalidationBatch batch);
+
+    /**
+     * Called when notifications may have been missed (listener reconnect): everything cached locally
+     * must be considered stale.
+     */
+    void onFlush();
+}
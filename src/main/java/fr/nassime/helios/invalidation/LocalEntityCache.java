@@ -0,0 +1,51 @@
+package fr.nassime.helios.invalidation;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimal per-JVM entity cache keyed by table and id, kept coherent across nodes by registering it on
+ * the {@link InvalidationBus}. Table names are normalized like the published ones, so {@code UserAccounts}
+ * and {@code useraccounts} are the same table.
+ */
+public class LocalEntityCache implements InvalidationListener {
+    private final Map<String, Map<String, Object>> tables = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(String table, Object id) {
+        Map<String, Object> entries = tables.get(InvalidationBus.tableKey(table));
+        return entries == null ? Optional.empty() : Optional.ofNullable((T) entries.get(String.valueOf(id)));
+    }
+
+    public void put(String table, Object id, Object entity) {
+        tables.computeIfAbsent(InvalidationBus.tableKey(table), key -> new ConcurrentHashMap<>()).put(String.valueOf(id), entity);
+    }
+
+    public void evict(String table, Object id) {
+        Map<String, Object> entries = tables.get(InvalidationBus.tableKey(table));
+        if (entries != null) {
+            entries.remove(String.valueOf(id));
+        }
+    }
+
+    public int size() {
+        return tables.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Override
+    public void onInvalidate(InvalidationBatch batch) {
+        batch.getInvalidatedTables().forEach(tables::remove);
+        batch.getIdsByTable().forEach((table, ids) -> {
+            Map<String, Object> entries = tables.get(table);
+            if (entries != null) {
+                entries.keySet().removeAll(ids);
+            }
+        });
+    }
+
+    @Override
+    public void onFlush() {
+        tables.clear();
+    }
+}
@@ -0,0 +1,112 @@
+package fr.nassime.helios.lob;
+
+import fr.nassime.helios.types.TypeConverters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams a {@code bytea} or {@code text} column with successive {@code substring} reads, so that
+ * only one chunk of the value is in memory at a time. The connection is owned by the stream and
+ * held in a repeatable read transaction until {@link #close()}, so every chunk comes from the same
+ * version of the row.
+ */
+class ColumnInputStream extends InputStream {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final boolean text;
+    private final int chunkSize;
+    private long offset = 1;
+    private byte[] chunk = new byte[0];
+    private int position;
+    private boolean exhausted;
+
+    ColumnInputStream(Connection connection, String table, String idColumn, Object id, String column,
+                      boolean text, int chunkSize) throws SQLException {
+        this.connection = connection;
+        this.text = text;
+        this.chunkSize = chunkSize;
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        this.statement = connection.prepareStatement("SELECT substring(" + column + " FROM ? FOR ?) FROM "
+                + table + " WHERE " + idColumn + " = ?");
+        TypeConverters.bind(statement, 3, id);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, chunk.length - position);
+        System.arraycopy(chunk, position, buffer, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < chunk.length) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+
+        try {
+            statement.setLong(1, offset);
+            statement.setInt(2, chunkSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new IOException("Row no longer exists");
+                }
+                if (text) {
+                    // Les positions de substring sont en caractères pour text
+                    String value = resultSet.getString(1);
+                    int characters = value == null ? 0 : value.codePointCount(0, value.length());
+                    chunk = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+                    offset += characters;
+                    exhausted = characters < chunkSize;
+                } else {
+                    byte[] value = resultSet.getBytes(1);
+                    chunk = value == null ? new byte[0] : value;
+                    offset += chunk.length;
+                    exhausted = chunk.length < chunkSize;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error while reading column chunk at offset " + offset, e);
+        }
+        position = 0;
+        return chunk.length > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (connection) {
+            statement.close();
+            connection.rollback();
+        } catch (SQLException e) {
+            throw new IOException("Error while closing column stream", e);
+        }
+    }
+}
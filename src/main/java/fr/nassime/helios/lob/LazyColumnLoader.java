@@ -0,0 +1,106 @@
+package fr.nassime.helios.lob;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.SelectBuilder;
+import fr.nassime.helios.types.TypeConverter;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads {@code @Column(lazy = true)} columns for a group of already loaded entities, with one
+ * {@code id = ANY(?)} query per chunk of ids instead of one query per entity.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LazyColumnLoader {
+    private final HeliosORM orm;
+    private final int batchSize;
+
+    public <T> void load(Collection<T> entities, String... fieldNames) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        EntityMapper<T> mapper = (EntityMapper<T>) orm.getEntityMapper(entities.iterator().next().getClass());
+        List<String> columns = columns(mapper, fieldNames);
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        String idColumn = mapper.getIdColumnName();
+        TypeConverter<?> idConverter = mapper.getColumnConverter(idColumn);
+        List<String> selected = new ArrayList<>(columns.size() + 1);
+        selected.add(idColumn);
+        selected.addAll(columns);
+
+        Map<Object, List<T>> byId = new HashMap<>();
+        for (T entity : entities) {
+            byId.computeIfAbsent(mapper.getIdValue(entity), key -> new ArrayList<>()).add(entity);
+        }
+        List<Object> ids = new ArrayList<>(byId.keySet());
+
+        orm.executeInReadOnlyTransaction(connection -> {
+            for (int start = 0; start < ids.size(); start += batchSize) {
+                List<Object> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+                SelectBuilder selectBuilder = SelectBuilder.create()
+                        .columns(selected)
+                        .from(mapper.getTableName())
+                        .whereCustom(idColumn + " = ANY(?)", chunk);
+
+                try {
+                    orm.getQueryExecutor().query(connection, selectBuilder, resultSet -> {
+                        while (resultSet.next()) {
+                            List<T> targets = byId.getOrDefault(idConverter.read(resultSet, 1), List.of());
+                            for (int i = 0; i < columns.size(); i++) {
+                                String column = columns.get(i);
+                                Object value = mapper.getColumnConverter(column).read(resultSet, i + 2);
+                                Field field = mapper.getColumnField(column);
+                                for (T target : targets) {
+                                    ReflectionUtils.setFieldValue(target, field, value);
+                                }
+                            }
+                            for (T target : targets) {
+                                mapper.markLazyColumnsLoaded(target, columns);
+                            }
+                        }
+                        return null;
+                    });
+                } catch (SQLException e) {
+                    throw new HeliosException("Error while loading lazy columns of " + mapper.getTableName(), e);
+                }
+            }
+            return null;
+        });
+        log.debug("Loaded {} lazy columns for {} entities", columns.size(), entities.size());
+    }
+
+    private static List<String> columns(EntityMapper<?> mapper, String... fieldNames) {
+        if (fieldNames.length == 0) {
+            return new ArrayList<>(mapper.getLazyColumns());
+        }
+
+        List<String> columns = new ArrayList<>(fieldNames.length);
+        for (String fieldName : fieldNames) {
+            String column = mapper.getColumnFieldMap().entrySet().stream()
+                    .filter(entry -> entry.getValue().getName().equals(fieldName))
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElseThrow(() -> new HeliosException("Unknown column field " + fieldName
+                            + " in " + mapper.getEntityClass().getName()));
+            columns.add(column);
+        }
+        return columns;
+    }
+}
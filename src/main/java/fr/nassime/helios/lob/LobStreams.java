@@ -0,0 +1,106 @@
+package fr.nassime.helios.lob;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.SelectBuilder;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.largeobject.LargeObject;
+import org.postgresql.largeobject.LargeObjectManager;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Opens streams over large column values without loading them into the heap. {@code byte[]} and
+ * {@code String} fields are read from {@code bytea}/{@code text} columns chunk by chunk; {@code long}
+ * fields are taken as large object oids and read through the large object API.
+ */
+@RequiredArgsConstructor
+public class LobStreams {
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final HeliosORM orm;
+
+    public InputStream open(Object entity, String fieldName) {
+        @SuppressWarnings("unchecked")
+        EntityMapper<Object> mapper = (EntityMapper<Object>) orm.getEntityMapper(entity.getClass());
+        Object id = mapper.getIdValue(entity);
+        String column = mapper.getColumnFieldMap().entrySet().stream()
+                .filter(entry -> entry.getValue().getName().equals(fieldName))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> new HeliosException("Unknown column field " + fieldName
+                        + " in " + entity.getClass().getName()));
+        Field field = mapper.getColumnField(column);
+        Class<?> type = ReflectionUtils.wrap(field.getType());
+
+        Connection connection = orm.getReadConnection();
+        try {
+            if (type == Long.class) {
+                return openLargeObject(connection, mapper, id, column);
+            } else if (type == byte[].class || type == String.class) {
+                return new ColumnInputStream(connection, mapper.getTableName(), mapper.getIdColumnName(), id,
+                        column, type == String.class, CHUNK_SIZE);
+            }
+            throw new HeliosException("Field " + fieldName + " of type " + field.getType().getName()
+                    + " cannot be streamed");
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(connection);
+            if (e instanceof HeliosException heliosException) {
+                throw heliosException;
+            }
+            throw new HeliosException("Error while opening a stream on " + mapper.getTableName() + "." + column, e);
+        }
+    }
+
+    private InputStream openLargeObject(Connection connection, EntityMapper<Object> mapper, Object id,
+                                        String column) throws SQLException {
+        Long oid = orm.getQueryExecutor().query(connection, SelectBuilder.create()
+                .columns(column)
+                .from(mapper.getTableName())
+                .where(Collections.singletonMap(mapper.getIdColumnName(), id)), resultSet -> {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long value = resultSet.getLong(1);
+            return resultSet.wasNull() ? null : value;
+        });
+        if (oid == null) {
+            throw new HeliosException("No large object for " + mapper.getTableName() + "." + column + " with ID: " + id);
+        }
+
+        // L'objet ne peut être lu qu'à l'intérieur de la transaction qui l'a ouvert
+        LargeObject largeObject = connection.unwrap(PGConnection.class).getLargeObjectAPI()
+                .open(oid, LargeObjectManager.READ);
+        return new FilterInputStream(largeObject.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try (connection) {
+                    super.close();
+                    largeObject.close();
+                    connection.rollback();
+                } catch (SQLException e) {
+                    throw new IOException("Error while closing large object " + oid, e);
+                }
+            }
+        };
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.rollback();
+            connection.close();
+        } catch (SQLException ignored) {
+            // La connexion est rendue au pool dans tous les cas
+        }
+    }
+}
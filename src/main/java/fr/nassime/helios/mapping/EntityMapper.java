@@ -1,17 +1,33 @@
 package fr.nassime.helios.mapping;
 
 import fr.nassime.helios.annotation.*;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.id.IdGenerator;
+import fr.nassime.helios.id.IdGenerators;
 import fr.nassime.helios.relation.RelationInfo;
 import fr.nassime.helios.relation.RelationType;
+import fr.nassime.helios.types.SqlNull;
+import fr.nassime.helios.types.TypeConverter;
+import fr.nassime.helios.types.TypeConverters;
 import fr.nassime.helios.util.ReflectionUtils;
+import fr.nassime.helios.util.WeakIdentityMap;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 public class EntityMapper<T> {
@@ -23,23 +39,135 @@ public class EntityMapper<T> {
     private final Field idField;
     private final List<Field> columnFields;
     private final Map<String, Field> columnFieldMap;
+    private final Map<String, TypeConverter<?>> columnConverters;
+    @Getter
+    private final Set<String> lazyColumns;
+    // Vide quand aucune colonne n'est paresseuse : SELECT * reste alors inchangé
+    @Getter
+    private final List<String> selectColumns;
+    // Colonnes paresseuses pas encore chargées des entités lues en base
+    private final WeakIdentityMap<Object, Set<String>> unloadedLazyColumns = new WeakIdentityMap<>();
 
     @Getter
     private final List<RelationInfo> relations;
+    @Getter
+    private final GeneratedEntityMapper<T> generatedMapper;
+    @Getter
+    private final IdGenerator idGenerator;
+
+    // Records : constructeur canonique résolu une fois, appelé avec un tableau d'arguments par ligne
+    private final MethodHandle canonicalConstructor;
+    private final Field[] components;
+    private final Object[] componentDefaults;
+    private final Map<String, Integer> componentIndexes;
 
     public EntityMapper(Class<T> entityClass) {
         this.entityClass = entityClass;
-        this.tableName = ReflectionUtils.getTableName(entityClass);
-        this.idField = ReflectionUtils.getIdField(entityClass);
-        this.columnFields = ReflectionUtils.getColumnFields(entityClass);
-        this.columnFieldMap = ReflectionUtils.createColumnFieldMap(entityClass);
-        this.relations = findRelations(entityClass);
+        this.generatedMapper = GeneratedMappers.find(entityClass);
+        this.tableName = generatedMapper != null
+                ? generatedMapper.tableName()
+                : ReflectionUtils.getTableName(entityClass);
+
+        String[] fieldNames = generatedMapper != null ? generatedMapper.fieldNames() : null;
+        String[] relationFieldNames = generatedMapper != null ? generatedMapper.relationFieldNames() : null;
+        if (fieldNames != null && relationFieldNames != null) {
+            // Le processeur a déjà inventorié l'entité : on ne résout que les champs qu'il a trouvés
+            String[] columnNames = generatedMapper.columnNames();
+            String idColumnName = generatedMapper.idColumnName();
+            List<Field> fields = new ArrayList<>(fieldNames.length);
+            Map<String, Field> fieldMap = new HashMap<>();
+            Field id = null;
+            for (int i = 0; i < fieldNames.length; i++) {
+                Field field = ReflectionUtils.getField(entityClass, fieldNames[i]);
+                fields.add(field);
+                fieldMap.put(columnNames[i], field);
+                if (id == null && columnNames[i].equals(idColumnName)) {
+                    id = field;
+                }
+            }
+            this.idField = id;
+            this.columnFields = fields;
+            this.columnFieldMap = fieldMap;
+            Field[] relationFields = new Field[relationFieldNames.length];
+            for (int i = 0; i < relationFieldNames.length; i++) {
+                relationFields[i] = ReflectionUtils.getField(entityClass, relationFieldNames[i]);
+            }
+            this.relations = findRelations(relationFields);
+        } else {
+            this.idField = ReflectionUtils.getIdField(entityClass);
+            this.columnFields = ReflectionUtils.getColumnFields(entityClass);
+            this.columnFieldMap = ReflectionUtils.createColumnFieldMap(entityClass);
+            this.relations = findRelations(entityClass.getDeclaredFields());
+        }
+        this.columnConverters = new HashMap<>();
+        columnFieldMap.forEach((column, field) -> columnConverters.put(column, TypeConverters.forField(field)));
+        this.lazyColumns = new HashSet<>();
+        for (Field field : columnFields) {
+            Column column = field.getAnnotation(Column.class);
+            if (column != null && column.lazy() && !field.equals(idField)) {
+                lazyColumns.add(ReflectionUtils.getColumnName(field));
+            }
+        }
+        this.selectColumns = lazyColumns.isEmpty() ? List.of() : columnFields.stream()
+                .map(ReflectionUtils::getColumnName)
+                .filter(column -> !lazyColumns.contains(column))
+                .toList();
+        this.idGenerator = IdGenerators.forField(idField, tableName, ReflectionUtils.getColumnName(idField));
+
+        for (RelationInfo relation : relations) {
+            // Une cascade écrit la clé étrangère et l'id dans l'instance cible, impossible sur un record
+            if (relation.isCascade() && relation.getTargetEntityClass().isRecord()) {
+                throw new HeliosException("Cascade relation " + entityClass.getName() + "." + relation.getField().getName()
+                        + " targets record " + relation.getTargetEntityClass().getName()
+                        + ", which is immutable: save it without cascade");
+            }
+        }
+
+        if (entityClass.isRecord()) {
+            if (!relations.isEmpty() || !lazyColumns.isEmpty()) {
+                throw new HeliosException("Record entity " + entityClass.getName()
+                        + " cannot declare relations or lazy columns, they are loaded into existing instances");
+            }
+            RecordComponent[] recordComponents = entityClass.getRecordComponents();
+            this.components = new Field[recordComponents.length];
+            this.componentDefaults = new Object[recordComponents.length];
+            this.componentIndexes = new HashMap<>();
+            Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                parameterTypes[i] = recordComponents[i].getType();
+                components[i] = ReflectionUtils.getField(entityClass, recordComponents[i].getName());
+                componentDefaults[i] = parameterTypes[i].isPrimitive()
+                        ? Array.get(Array.newInstance(parameterTypes[i], 1), 0)
+                        : null;
+                if (columnFields.contains(components[i])) {
+                    componentIndexes.put(ReflectionUtils.getColumnName(components[i]), i);
+                }
+            }
+            this.canonicalConstructor = canonicalConstructor(entityClass, parameterTypes);
+        } else {
+            this.canonicalConstructor = null;
+            this.components = null;
+            this.componentDefaults = null;
+            this.componentIndexes = Map.of();
+        }
     }
 
-    private List<RelationInfo> findRelations(Class<?> entityClass) {
+    private static MethodHandle canonicalConstructor(Class<?> recordClass, Class<?>[] parameterTypes) {
+        try {
+            Constructor<?> constructor = recordClass.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new HeliosException("Unable to resolve the canonical constructor of " + recordClass.getName(), e);
+        }
+    }
+
+    private List<RelationInfo> findRelations(Field[] fields) {
         List<RelationInfo> relationInfos = new ArrayList<>();
 
-        for (Field field : entityClass.getDeclaredFields()) {
+        for (Field field : fields) {
             field.setAccessible(true);
 
             if (field.isAnnotationPresent(OneToOne.class)) {
@@ -119,6 +247,46 @@ public class EntityMapper<T> {
     }
 
     public Map<String, Object> toColumnValues(T entity, boolean includeId) {
+        Map<String, Object> values = columnValues(entity, includeId);
+        if (includeId && !lazyColumns.isEmpty()) {
+            Set<String> unloaded = unloadedLazyColumns.get(entity);
+            if (unloaded != null) {
+                // Une colonne paresseuse jamais chargée et restée à null n'est pas écrasée ; une fois
+                // chargée, null s'écrit comme n'importe quelle valeur
+                values.entrySet().removeIf(entry -> entry.getValue() == null && unloaded.contains(entry.getKey()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Records that the entity was read without the given lazy columns.
+     */
+    public void markLazyColumnsUnloaded(T entity, Set<String> columns) {
+        if (!columns.isEmpty()) {
+            unloadedLazyColumns.put(entity, columns);
+        }
+    }
+
+    public void markLazyColumnsLoaded(T entity, Collection<String> columns) {
+        Set<String> unloaded = unloadedLazyColumns.get(entity);
+        if (unloaded == null) {
+            return;
+        }
+        Set<String> remaining = new HashSet<>(unloaded);
+        remaining.removeAll(columns);
+        if (remaining.isEmpty()) {
+            unloadedLazyColumns.remove(entity);
+        } else {
+            unloadedLazyColumns.put(entity, Set.copyOf(remaining));
+        }
+    }
+
+    private Map<String, Object> columnValues(T entity, boolean includeId) {
+        if (generatedMapper != null) {
+            return generatedMapper.toColumnValues(entity, includeId);
+        }
+
         Map<String, Object> values = new HashMap<>();
 
         for (Field field : columnFields) {
@@ -144,14 +312,101 @@ public class EntityMapper<T> {
         return values;
     }
 
+    /**
+     * Same as {@link #toColumnValues} but with {@code null} values replaced by typed {@link SqlNull}
+     * markers, ready to be bound as statement parameters.
+     */
+    public Map<String, Object> toBindValues(T entity, boolean includeId) {
+        Map<String, Object> values = toColumnValues(entity, includeId);
+        values.replaceAll(this::toParameter);
+        return values;
+    }
+
+    public Object toParameter(String columnName, Object value) {
+        if (value != null) {
+            return value;
+        }
+        TypeConverter<?> converter = columnConverters.get(columnName);
+        return converter != null ? SqlNull.of(converter.getSqlType()) : null;
+    }
+
+    public TypeConverter<?> getColumnConverter(String columnName) {
+        return columnConverters.get(columnName);
+    }
+
     public Object getIdValue(T entity) {
+        if (generatedMapper != null) {
+            return generatedMapper.getIdValue(entity);
+        }
         return ReflectionUtils.getFieldValue(entity, idField);
     }
 
+    // Un id passé en Integer doit retrouver l'entité dont l'id est un Long
+    public static Object idKey(Object id) {
+        return id instanceof Integer || id instanceof Short || id instanceof Byte ? ((Number) id).longValue() : id;
+    }
+
     public void setIdValue(T entity, Object idValue) {
+        if (canonicalConstructor != null) {
+            throw new HeliosException("Record entity " + entityClass.getName() + " is immutable, use withId");
+        }
+        if (generatedMapper != null) {
+            generatedMapper.setIdValue(entity, idValue);
+            return;
+        }
         ReflectionUtils.setFieldValue(entity, idField, idValue);
     }
 
+    /**
+     * Returns the entity with the given id: the same instance for classes, a copy for records.
+     */
+    public T withId(T entity, Object idValue) {
+        if (canonicalConstructor == null) {
+            setIdValue(entity, idValue);
+            return entity;
+        }
+        Object[] arguments = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            arguments[i] = components[i].equals(idField) ? idValue : ReflectionUtils.getFieldValue(entity, components[i]);
+        }
+        return instantiate(arguments);
+    }
+
+    public boolean isRecord() {
+        return canonicalConstructor != null;
+    }
+
+    /**
+     * Index of the column in the canonical constructor arguments of a record, or -1.
+     */
+    public int getComponentIndex(String columnName) {
+        return componentIndexes.getOrDefault(columnName, -1);
+    }
+
+    /**
+     * Canonical constructor arguments of a record, set to {@code null} or zero for primitives.
+     */
+    public Object[] newArguments() {
+        return componentDefaults.clone();
+    }
+
+    @SuppressWarnings("unchecked")
+    public T instantiate(Object[] arguments) {
+        try {
+            return (T) (Object) canonicalConstructor.invokeExact(arguments);
+        } catch (Throwable e) {
+            throw new HeliosException("Failed to create a new instance of record " + entityClass.getName(), e);
+        }
+    }
+
+    public Field getColumnField(String columnName) {
+        return columnFieldMap.get(columnName);
+    }
+
+    public Map<String, Field> getColumnFieldMap() {
+        return columnFieldMap;
+    }
+
     public String getIdColumnName() {
         return ReflectionUtils.getColumnName(idField);
     }
@@ -163,9 +418,12 @@ public class EntityMapper<T> {
                 .toList();
     }
 
+    /**
+     * Whether the database generates the id, which then has to be read back after the insert.
+     */
     public boolean isIdGenerated() {
         Id idAnnotation = idField.getAnnotation(Id.class);
-        return idAnnotation.generated();
+        return idAnnotation.generated() && idAnnotation.strategy() == Id.Strategy.IDENTITY;
     }
 
     public List<RelationInfo> getEagerRelations() {
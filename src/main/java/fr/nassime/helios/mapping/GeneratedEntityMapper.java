@@ -0,0 +1,50 @@
+package fr.nassime.helios.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Implemented by the classes that {@code helios-processor} generates for each {@code @Table} entity.
+ * Generated mappers are registered through {@link java.util.ServiceLoader} and replace reflection
+ * on the row mapping and column extraction paths of {@link EntityMapper}.
+ */
+public interface GeneratedEntityMapper<T> {
+
+    Class<T> entityClass();
+
+    String tableName();
+
+    String idColumnName();
+
+    /**
+     * Column names in the order expected by {@link #mapRow(ResultSet, int[])}.
+     */
+    String[] columnNames();
+
+    /**
+     * Field names in the order of {@link #columnNames()}, or {@code null} for mappers generated by
+     * an older processor, whose entities are then scanned by reflection.
+     */
+    default String[] fieldNames() {
+        return null;
+    }
+
+    /**
+     * Names of the fields carrying a relation annotation, or {@code null} like {@link #fieldNames()}.
+     */
+    default String[] relationFieldNames() {
+        return null;
+    }
+
+    /**
+     * @param columnIndexes for each entry of {@link #columnNames()}, its 1-based index in the result set or 0 when absent
+     */
+    T mapRow(ResultSet resultSet, int[] columnIndexes) throws SQLException;
+
+    Map<String, Object> toColumnValues(T entity, boolean includeId);
+
+    Object getIdValue(T entity);
+
+    void setIdValue(T entity, Object idValue);
+}
@@ -0,0 +1,39 @@
+package fr.nassime.helios.mapping;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public final class GeneratedMappers {
+    private static final Map<Class<?>, GeneratedEntityMapper<?>> MAPPERS = load();
+
+    private GeneratedMappers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedEntityMapper<T> find(Class<T> entityClass) {
+        return (GeneratedEntityMapper<T>) MAPPERS.get(entityClass);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Map<Class<?>, GeneratedEntityMapper<?>> load() {
+        Map<Class<?>, GeneratedEntityMapper<?>> mappers = new ConcurrentHashMap<>();
+        try {
+            for (GeneratedEntityMapper mapper : ServiceLoader.load(GeneratedEntityMapper.class,
+                    GeneratedMappers.class.getClassLoader())) {
+                mappers.put(mapper.entityClass(), mapper);
+            }
+        } catch (ServiceConfigurationError e) {
+            log.warn("Unable to load generated entity mappers, falling back to reflection", e);
+        }
+
+        if (!mappers.isEmpty()) {
+            log.info("Loaded {} generated entity mappers", mappers.size());
+        }
+        return mappers;
+    }
+}
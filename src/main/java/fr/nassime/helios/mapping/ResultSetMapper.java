@@ -1,6 +1,10 @@
 package fr.nassime.helios.mapping;
 
 import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.relation.RelationInfo;
+import fr.nassime.helios.relation.RelationType;
+import fr.nassime.helios.relation.UnloadedCollections;
+import fr.nassime.helios.types.TypeConverter;
 import fr.nassime.helios.util.ReflectionUtils;
 import lombok.extern.slf4j.Slf4j;
 
@@ -8,24 +12,36 @@ import java.lang.reflect.Field;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Slf4j
 public class ResultSetMapper {
+    private final Function<Class<?>, EntityMapper<?>> entityMappers;
+
+    public ResultSetMapper() {
+        Map<Class<?>, EntityMapper<?>> cache = new ConcurrentHashMap<>();
+        this.entityMappers = entityClass -> cache.computeIfAbsent(entityClass, EntityMapper::new);
+    }
+
+    public ResultSetMapper(Function<Class<?>, EntityMapper<?>> entityMappers) {
+        this.entityMappers = entityMappers;
+    }
 
     public <T> List<T> mapToList(ResultSet resultSet, Class<T> entityClass) {
         try {
             List<T> entities = new ArrayList<>();
-            Map<String, Field> columnFieldMap = ReflectionUtils.createColumnFieldMap(entityClass);
+            RowMapper<T> rowMapper = createRowMapper(resultSet.getMetaData(), entityClass);
 
             while (resultSet.next()) {
-                T entity = mapToEntity(resultSet, entityClass, columnFieldMap);
+                T entity = rowMapper.mapRow(resultSet);
                 entities.add(entity);
             }
 
@@ -38,8 +54,7 @@ public class ResultSetMapper {
     public <T> T mapToEntity(ResultSet resultSet, Class<T> entityClass) {
         try {
             if (resultSet.next()) {
-                Map<String, Field> columnFieldMap = ReflectionUtils.createColumnFieldMap(entityClass);
-                return mapToEntity(resultSet, entityClass, columnFieldMap);
+                return createRowMapper(resultSet.getMetaData(), entityClass).mapRow(resultSet);
             }
             return null;
         } catch (SQLException e) {
@@ -47,43 +62,118 @@ public class ResultSetMapper {
         }
     }
 
-    private <T> T mapToEntity(ResultSet resultSet, Class<T> entityClass, Map<String, Field> columnFieldMap) throws SQLException {
-        T entity = ReflectionUtils.newInstance(entityClass);
-        ResultSetMetaData metaData = resultSet.getMetaData();
+    // Resolves the column-to-field binding once per result set instead of once per row
+    @SuppressWarnings("unchecked")
+    public <T> RowMapper<T> createRowMapper(ResultSetMetaData metaData, Class<T> entityClass) throws SQLException {
+        EntityMapper<T> mapper = (EntityMapper<T>) entityMappers.apply(entityClass);
         int columnCount = metaData.getColumnCount();
 
-        for (int i = 1; i <= columnCount; i++) {
-            String columnName = metaData.getColumnName(i);
-            Field field = columnFieldMap.get(columnName);
+        GeneratedEntityMapper<T> generatedMapper = mapper.getGeneratedMapper();
+        if (generatedMapper != null) {
+            String[] columnNames = generatedMapper.columnNames();
+            int[] columnIndexes = new int[columnNames.length];
+            for (int i = 1; i <= columnCount; i++) {
+                String columnName = metaData.getColumnName(i);
+                for (int c = 0; c < columnNames.length; c++) {
+                    if (columnNames[c].equals(columnName)) {
+                        columnIndexes[c] = i;
+                    }
+                }
+            }
+            return withLazyState(mapper, metaData,
+                    withPlaceholders(mapper, resultSet -> generatedMapper.mapRow(resultSet, columnIndexes)));
+        }
 
-            if (field != null) {
-                Object value = getValueFromResultSet(resultSet, i, field.getType());
-                ReflectionUtils.setFieldValue(entity, field, value);
+        if (mapper.isRecord()) {
+            int[] componentIndexes = new int[columnCount + 1];
+            TypeConverter<?>[] converters = new TypeConverter<?>[columnCount + 1];
+            for (int i = 1; i <= columnCount; i++) {
+                String columnName = metaData.getColumnName(i);
+                componentIndexes[i] = mapper.getComponentIndex(columnName);
+                converters[i] = mapper.getColumnConverter(columnName);
             }
+            return resultSet -> {
+                Object[] arguments = mapper.newArguments();
+                for (int i = 1; i <= columnCount; i++) {
+                    if (componentIndexes[i] >= 0) {
+                        Object value = converters[i].read(resultSet, i);
+                        // NULL garde la valeur par défaut, un composant primitif ne peut pas recevoir null
+                        if (value != null) {
+                            arguments[componentIndexes[i]] = value;
+                        }
+                    }
+                }
+                return mapper.instantiate(arguments);
+            };
         }
 
-        return entity;
-    }
+        Map<String, Field> columnFieldMap = mapper.getColumnFieldMap();
+        Field[] fields = new Field[columnCount + 1];
+        TypeConverter<?>[] converters = new TypeConverter<?>[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            String columnName = metaData.getColumnName(i);
+            fields[i] = columnFieldMap.get(columnName);
+            converters[i] = mapper.getColumnConverter(columnName);
+        }
 
-    private Object getValueFromResultSet(ResultSet resultSet, int columnIndex, Class<?> targetType) throws SQLException {
-        Object value = resultSet.getObject(columnIndex);
+        return withLazyState(mapper, metaData, withPlaceholders(mapper, resultSet -> {
+            T entity = ReflectionUtils.newInstance(entityClass);
+            for (int i = 1; i <= columnCount; i++) {
+                Field field = fields[i];
+                if (field != null) {
+                    Object value = converters[i].read(resultSet, i);
+                    ReflectionUtils.setFieldValue(entity, field, value);
+                }
+            }
+            return entity;
+        }));
+    }
 
-        if (value == null) {
-            return null;
+    // Les colonnes paresseuses absentes du résultat sont notées comme non chargées sur chaque entité
+    private static <T> RowMapper<T> withLazyState(EntityMapper<T> mapper, ResultSetMetaData metaData,
+                                                  RowMapper<T> rowMapper) throws SQLException {
+        if (mapper.getLazyColumns().isEmpty()) {
+            return rowMapper;
         }
+        Set<String> unloaded = new HashSet<>(mapper.getLazyColumns());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            unloaded.remove(metaData.getColumnName(i));
+        }
+        if (unloaded.isEmpty()) {
+            return rowMapper;
+        }
+
+        Set<String> unloadedColumns = Set.copyOf(unloaded);
+        return resultSet -> {
+            T entity = rowMapper.mapRow(resultSet);
+            mapper.markLazyColumnsUnloaded(entity, unloadedColumns);
+            return entity;
+        };
+    }
 
-        // Conversions spécifiques
-        if (targetType == LocalDateTime.class && value instanceof Timestamp) {
-            return ((Timestamp) value).toLocalDateTime();
-        } else if (targetType == LocalDate.class && value instanceof java.sql.Date) {
-            return ((java.sql.Date) value).toLocalDate();
-        } else if (targetType.isEnum() && value instanceof String) {
-            return Enum.valueOf((Class<Enum>) targetType, (String) value);
-        } else if (targetType.isEnum() && value instanceof Number) {
-            return targetType.getEnumConstants()[((Number) value).intValue()];
+    // Les collections ManyToMany initialisées par l'entité ne sont pas chargées : on les marque.
+    // Les EAGER aussi, le chargement les remplace et une lecture sans relations (parallelScan) les garde
+    private static <T> RowMapper<T> withPlaceholders(EntityMapper<T> mapper, RowMapper<T> rowMapper) {
+        List<Field> collectionFields = mapper.getRelations().stream()
+                .filter(relation -> relation.getType() == RelationType.MANY_TO_MANY)
+                .map(RelationInfo::getField)
+                .toList();
+        if (collectionFields.isEmpty()) {
+            return rowMapper;
         }
 
-        return value;
+        return resultSet -> {
+            T entity = rowMapper.mapRow(resultSet);
+            for (Field field : collectionFields) {
+                if (ReflectionUtils.getFieldValue(entity, field) != null) {
+                    Collection<Object> placeholder = UnloadedCollections.placeholder(field);
+                    if (placeholder != null) {
+                        ReflectionUtils.setFieldValue(entity, field, placeholder);
+                    }
+                }
+            }
+            return entity;
+        };
     }
 
     public Map<String, Object> mapToMap(ResultSet resultSet) {
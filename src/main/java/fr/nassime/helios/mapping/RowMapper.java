@@ -0,0 +1,9 @@
+package fr.nassime.helios.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
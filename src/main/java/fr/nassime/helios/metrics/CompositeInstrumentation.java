@@ -0,0 +1,71 @@
+package fr.nassime.helios.metrics;
+
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.relation.RelationInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Slf4j
+public class CompositeInstrumentation implements HeliosInstrumentation {
+
+    private final List<HeliosInstrumentation> delegates = new CopyOnWriteArrayList<>();
+
+    public void add(HeliosInstrumentation instrumentation) {
+        delegates.add(instrumentation);
+    }
+
+    public void remove(HeliosInstrumentation instrumentation) {
+        delegates.remove(instrumentation);
+    }
+
+    @Override
+    public void onStatement(StatementEvent event) {
+        dispatch("onStatement", delegate -> delegate.onStatement(event));
+    }
+
+    @Override
+    public void onRelationLoad(Class<?> ownerClass, RelationInfo relationInfo) {
+        dispatch("onRelationLoad", delegate -> delegate.onRelationLoad(ownerClass, relationInfo));
+    }
+
+    @Override
+    public void onTransaction(long durationNanos, boolean committed) {
+        dispatch("onTransaction", delegate -> delegate.onTransaction(durationNanos, committed));
+    }
+
+    @Override
+    public void onConnectionAcquired(long waitNanos) {
+        dispatch("onConnectionAcquired", delegate -> delegate.onConnectionAcquired(waitNanos));
+    }
+
+    @Override
+    public void onHedgedRead(boolean hedged, boolean hedgeWon) {
+        dispatch("onHedgedRead", delegate -> delegate.onHedgedRead(hedged, hedgeWon));
+    }
+
+    // Chaque délégué reçoit l'événement même si un autre échoue. Une HeliosException (budget de
+    // requêtes dépassé par exemple) est volontaire et remonte une fois tous les délégués appelés ;
+    // toute autre erreur est journalisée pour ne pas faire échouer la requête instrumentée.
+    private void dispatch(String callback, Consumer<HeliosInstrumentation> call) {
+        HeliosException failure = null;
+        for (HeliosInstrumentation delegate : delegates) {
+            try {
+                call.accept(delegate);
+            } catch (HeliosException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Instrumentation {} failed in {}", delegate.getClass().getName(), callback, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package fr.nassime.helios.metrics;
+
+import fr.nassime.helios.relation.RelationInfo;
+
+public interface HeliosInstrumentation {
+
+    HeliosInstrumentation NOOP = new HeliosInstrumentation() {
+    };
+
+    default void onStatement(StatementEvent event) {
+    }
+
+    default void onRelationLoad(Class<?> ownerClass, RelationInfo relationInfo) {
+    }
+
+    default void onTransaction(long durationNanos, boolean committed) {
+    }
+
+    default void onConnectionAcquired(long waitNanos) {
+    }
+
+    /**
+     * Called once per read eligible for hedging, with whether a second attempt was issued and
+     * whether it returned first.
+     */
+    default void onHedgedRead(boolean hedged, boolean hedgeWon) {
+    }
+}
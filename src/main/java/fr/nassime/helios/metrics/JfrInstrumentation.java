@@ -0,0 +1,87 @@
+package fr.nassime.helios.metrics;
+
+import fr.nassime.helios.relation.RelationInfo;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class JfrInstrumentation implements HeliosInstrumentation {
+
+    @Override
+    public void onStatement(StatementEvent event) {
+        StatementJfrEvent jfrEvent = new StatementJfrEvent();
+        if (jfrEvent.isEnabled()) {
+            jfrEvent.sql = event.getSql();
+            jfrEvent.prepareNanos = event.getPrepareNanos();
+            jfrEvent.executeNanos = event.getExecuteNanos();
+            jfrEvent.mapNanos = event.getMapNanos();
+            jfrEvent.rows = event.getRows();
+            jfrEvent.failed = event.isFailed();
+            jfrEvent.commit();
+        }
+    }
+
+    @Override
+    public void onRelationLoad(Class<?> ownerClass, RelationInfo relationInfo) {
+        RelationLoadJfrEvent jfrEvent = new RelationLoadJfrEvent();
+        if (jfrEvent.isEnabled()) {
+            jfrEvent.ownerClass = ownerClass.getName();
+            jfrEvent.field = relationInfo.getField().getName();
+            jfrEvent.commit();
+        }
+    }
+
+    @Override
+    public void onTransaction(long durationNanos, boolean committed) {
+        TransactionJfrEvent jfrEvent = new TransactionJfrEvent();
+        if (jfrEvent.isEnabled()) {
+            jfrEvent.durationNanos = durationNanos;
+            jfrEvent.committed = committed;
+            jfrEvent.commit();
+        }
+    }
+
+    @Name("fr.nassime.helios.Statement")
+    @Label("Helios Statement")
+    @Category("Helios")
+    static class StatementJfrEvent extends Event {
+        @Label("SQL")
+        String sql;
+        @Label("Prepare Time")
+        @Timespan
+        long prepareNanos;
+        @Label("Execute Time")
+        @Timespan
+        long executeNanos;
+        @Label("Map Time")
+        @Timespan
+        long mapNanos;
+        @Label("Rows")
+        int rows;
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("fr.nassime.helios.RelationLoad")
+    @Label("Helios Relation Load")
+    @Category("Helios")
+    static class RelationLoadJfrEvent extends Event {
+        @Label("Owner Class")
+        String ownerClass;
+        @Label("Field")
+        String field;
+    }
+
+    @Name("fr.nassime.helios.Transaction")
+    @Label("Helios Transaction")
+    @Category("Helios")
+    static class TransactionJfrEvent extends Event {
+        @Label("Duration")
+        @Timespan
+        long durationNanos;
+        @Label("Committed")
+        boolean committed;
+    }
+}
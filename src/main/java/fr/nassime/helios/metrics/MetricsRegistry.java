@@ -0,0 +1,116 @@
+package fr.nassime.helios.metrics;
+
+import fr.nassime.helios.connection.PoolStats;
+import fr.nassime.helios.relation.RelationInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Slf4j
+public class MetricsRegistry implements HeliosInstrumentation {
+    public static final String OTHER_STATEMENTS = "<other>";
+
+    private static final int MAX_STATEMENT_SHAPES = 1000;
+
+    private final Supplier<PoolStats> poolStats;
+    private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+    private final LongAdder rowsMapped = new LongAdder();
+    private final LongAdder rowsAffected = new LongAdder();
+    private final Map<String, LongAdder> relationLoads = new ConcurrentHashMap<>();
+    private final LatencyHistogram transactions = new LatencyHistogram();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final LongAdder hedgeableReads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public MetricsRegistry(Supplier<PoolStats> poolStats) {
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void onStatement(StatementEvent event) {
+        statementMetrics(event.getSql()).record(event);
+        if (event.isResultSet()) {
+            rowsMapped.add(event.getRows());
+        } else {
+            rowsAffected.add(event.getRows());
+        }
+    }
+
+    @Override
+    public void onRelationLoad(Class<?> ownerClass, RelationInfo relationInfo) {
+        String key = ownerClass.getSimpleName() + "." + relationInfo.getField().getName();
+        relationLoads.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onTransaction(long durationNanos, boolean committed) {
+        transactions.record(durationNanos);
+        if (committed) {
+            commits.increment();
+        } else {
+            rollbacks.increment();
+        }
+    }
+
+    @Override
+    public void onConnectionAcquired(long waitNanos) {
+        connectionWait.record(waitNanos);
+    }
+
+    @Override
+    public void onHedgedRead(boolean hedged, boolean hedgeWon) {
+        hedgeableReads.increment();
+        if (hedged) {
+            hedges.increment();
+        }
+        if (hedgeWon) {
+            hedgeWins.increment();
+        }
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, StatementSnapshot> statementSnapshots = new LinkedHashMap<>();
+        statements.forEach((sql, metrics) -> statementSnapshots.put(sql, metrics.snapshot()));
+
+        Map<String, Long> relationSnapshots = new LinkedHashMap<>();
+        relationLoads.forEach((relation, count) -> relationSnapshots.put(relation, count.sum()));
+
+        return new MetricsSnapshot(
+                Collections.unmodifiableMap(statementSnapshots),
+                rowsMapped.sum(),
+                rowsAffected.sum(),
+                Collections.unmodifiableMap(relationSnapshots),
+                transactions.snapshot(),
+                commits.sum(),
+                rollbacks.sum(),
+                connectionWait.snapshot(),
+                poolStats.get(),
+                hedgeableReads.sum(),
+                hedges.sum(),
+                hedgeWins.sum());
+    }
+
+    private StatementMetrics statementMetrics(String sql) {
+        StatementMetrics metrics = statements.get(sql);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        // Bound memory when callers build SQL with inlined literals
+        if (statements.size() >= MAX_STATEMENT_SHAPES) {
+            return statements.computeIfAbsent(OTHER_STATEMENTS, k -> {
+                log.warn("More than {} distinct SQL statements recorded, aggregating the rest", MAX_STATEMENT_SHAPES);
+                return new StatementMetrics();
+            });
+        }
+        return statements.computeIfAbsent(sql, k -> new StatementMetrics());
+    }
+}
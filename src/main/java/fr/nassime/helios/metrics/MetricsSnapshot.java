@@ -0,0 +1,34 @@
+package fr.nassime.helios.metrics;
+
+import fr.nassime.helios.connection.PoolStats;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MetricsSnapshot {
+    private final Map<String, StatementSnapshot> statements;
+    private final long rowsMapped;
+    private final long rowsAffected;
+    private final Map<String, Long> relationLoads;
+    private final HistogramSnapshot transactions;
+    private final long commits;
+    private final long rollbacks;
+    private final HistogramSnapshot connectionWait;
+    private final PoolStats pool;
+    private final long hedgeableReads;
+    private final long hedges;
+    private final long hedgeWins;
+
+    public double getHedgeRate() {
+        return hedgeableReads == 0 ? 0 : (double) hedges / hedgeableReads;
+    }
+
+    public double getHedgeWinRate() {
+        return hedges == 0 ? 0 : (double) hedgeWins / hedges;
+    }
+}
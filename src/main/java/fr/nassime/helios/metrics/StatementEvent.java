@@ -0,0 +1,24 @@
+package fr.nassime.helios.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class StatementEvent {
+    private final String sql;
+    private final List<Object> parameters;
+    private final long prepareNanos;
+    private final long executeNanos;
+    private final long mapNanos;
+    private final int rows;
+    /** Whether {@link #getRows()} counts rows read from a result set rather than rows affected. */
+    private final boolean resultSet;
+    private final boolean failed;
+
+    public long getTotalNanos() {
+        return prepareNanos + executeNanos + mapNanos;
+    }
+}
@@ -0,0 +1,36 @@
+package fr.nassime.helios.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Getter
+public class StatementMetrics {
+    private final LatencyHistogram prepare = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram map = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(StatementEvent event) {
+        prepare.record(event.getPrepareNanos());
+        execute.record(event.getExecuteNanos());
+        map.record(event.getMapNanos());
+        total.record(event.getTotalNanos());
+        rows.add(event.getRows());
+        if (event.isFailed()) {
+            errors.increment();
+        }
+    }
+
+    public StatementSnapshot snapshot() {
+        return new StatementSnapshot(
+                prepare.snapshot(),
+                execute.snapshot(),
+                map.snapshot(),
+                total.snapshot(),
+                rows.sum(),
+                errors.sum());
+    }
+}
@@ -0,0 +1,17 @@
+package fr.nassime.helios.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class StatementSnapshot {
+    private final HistogramSnapshot prepare;
+    private final HistogramSnapshot execute;
+    private final HistogramSnapshot map;
+    private final HistogramSnapshot total;
+    private final long rows;
+    private final long errors;
+}
@@ -0,0 +1,113 @@
+package fr.nassime.helios.query;
+
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.ResultSetMapper;
+import fr.nassime.helios.mapping.RowMapper;
+import lombok.Getter;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A named query parsed once: named parameters are rewritten to positional ones and the row mapper,
+ * once resolved from the result columns, is kept for every later execution.
+ */
+@Getter
+public final class CompiledQuery<T> {
+    private final String name;
+    private final Class<T> entityClass;
+    private final String sql;
+    private final int parameterCount;
+    // Vide pour les requêtes à paramètres positionnels
+    private final List<String> parameterNames;
+    private volatile RowMapper<T> rowMapper;
+
+    private CompiledQuery(String name, Class<T> entityClass, String sql, int parameterCount,
+                          List<String> parameterNames) {
+        this.name = name;
+        this.entityClass = entityClass;
+        this.sql = sql;
+        this.parameterCount = parameterCount;
+        this.parameterNames = parameterNames;
+    }
+
+    public static <T> CompiledQuery<T> compile(String name, Class<T> entityClass, String query) {
+        StringBuilder sql = new StringBuilder(query.length());
+        List<String> parameterNames = new ArrayList<>();
+        int positional = 0;
+        char quote = 0;
+
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                positional++;
+            } else if (c == ':' && i + 1 < query.length() && query.charAt(i + 1) == ':') {
+                // Cast PostgreSQL (::type), pas un paramètre
+                sql.append("::");
+                i++;
+                continue;
+            } else if (c == ':' && i + 1 < query.length() && Character.isJavaIdentifierStart(query.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < query.length() && Character.isJavaIdentifierPart(query.charAt(end))) {
+                    end++;
+                }
+                parameterNames.add(query.substring(i + 1, end));
+                sql.append('?');
+                i = end - 1;
+                continue;
+            }
+            sql.append(c);
+        }
+
+        if (positional > 0 && !parameterNames.isEmpty()) {
+            throw new HeliosException("Named query " + name + " mixes positional and named parameters");
+        }
+        return new CompiledQuery<>(name, entityClass, sql.toString(),
+                positional + parameterNames.size(), Collections.unmodifiableList(parameterNames));
+    }
+
+    public NativeQuery bind(Object... parameters) {
+        if (!parameterNames.isEmpty()) {
+            throw new HeliosException("Named query " + name + " expects named parameters " + parameterNames);
+        }
+        if (parameters.length != parameterCount) {
+            throw new HeliosException("Named query " + name + " expects " + parameterCount
+                    + " parameters, got " + parameters.length);
+        }
+        return NativeQuery.create(sql, parameters);
+    }
+
+    public NativeQuery bind(Map<String, ?> parameters) {
+        Object[] values = new Object[parameterNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            String parameterName = parameterNames.get(i);
+            if (!parameters.containsKey(parameterName)) {
+                throw new HeliosException("Missing parameter :" + parameterName + " for named query " + name);
+            }
+            values[i] = parameters.get(parameterName);
+        }
+        return NativeQuery.create(sql, values);
+    }
+
+    /**
+     * Returns the cached row mapper, resolving it from the result columns the first time.
+     */
+    public RowMapper<T> rowMapper(ResultSetMetaData metaData, ResultSetMapper resultSetMapper) throws SQLException {
+        RowMapper<T> mapper = rowMapper;
+        if (mapper == null) {
+            mapper = resultSetMapper.createRowMapper(metaData, entityClass);
+            rowMapper = mapper;
+        }
+        return mapper;
+    }
+}
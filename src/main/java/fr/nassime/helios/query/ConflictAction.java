@@ -0,0 +1,6 @@
+package fr.nassime.helios.query;
+
+public enum ConflictAction {
+    UPDATE,
+    NOTHING
+}
@@ -40,6 +40,66 @@ public class InsertBuilder extends QueryBuilder<InsertBuilder> {
         return this;
     }
 
+    public InsertBuilder values(List<String> columns, List<List<Object>> rows) {
+        if (columns == null || columns.isEmpty() || rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("The columns and rows cannot be empty");
+        }
+
+        query.append(" (").append(String.join(", ", columns)).append(")");
+
+        query.append(" VALUES ");
+        for (int row = 0; row < rows.size(); row++) {
+            List<Object> values = rows.get(row);
+            if (values.size() != columns.size()) {
+                throw new IllegalArgumentException("Row " + row + " has " + values.size()
+                        + " values but " + columns.size() + " columns were declared");
+            }
+
+            if (row > 0) {
+                query.append(", ");
+            }
+            query.append("(");
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    query.append(", ");
+                }
+                query.append("?");
+                parameters.add(values.get(i));
+            }
+            query.append(")");
+        }
+
+        return this;
+    }
+
+    public InsertBuilder onConflict(String... columns) {
+        query.append(" ON CONFLICT");
+        if (columns.length > 0) {
+            query.append(" (").append(String.join(", ", columns)).append(")");
+        }
+        return this;
+    }
+
+    public InsertBuilder doNothing() {
+        query.append(" DO NOTHING");
+        return this;
+    }
+
+    public InsertBuilder doUpdate(List<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("The columns to update cannot be empty");
+        }
+
+        query.append(" DO UPDATE SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(columns.get(i)).append(" = EXCLUDED.").append(columns.get(i));
+        }
+        return this;
+    }
+
     public InsertBuilder returning(String... columns) {
         query.append(" RETURNING ").append(String.join(", ", columns));
         return this;
@@ -0,0 +1,87 @@
+package fr.nassime.helios.query;
+
+import fr.nassime.helios.annotation.NamedQuery;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.ResultSetMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link NamedQuery} declarations of the known entities, by name.
+ */
+@Slf4j
+public class NamedQueryRegistry {
+    private final Map<String, CompiledQuery<?>> queries = new ConcurrentHashMap<>();
+
+    public void register(Class<?> entityClass) {
+        for (NamedQuery namedQuery : entityClass.getAnnotationsByType(NamedQuery.class)) {
+            CompiledQuery<?> query = CompiledQuery.compile(namedQuery.name(), entityClass, namedQuery.query());
+            CompiledQuery<?> previous = queries.putIfAbsent(namedQuery.name(), query);
+            if (previous != null && previous.getEntityClass() != entityClass) {
+                throw new HeliosException("Named query " + namedQuery.name() + " is declared on both "
+                        + previous.getEntityClass().getName() + " and " + entityClass.getName());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompiledQuery<T> get(Class<T> entityClass, String name) {
+        CompiledQuery<?> query = queries.get(name);
+        if (query == null) {
+            throw new HeliosException("Unknown named query: " + name);
+        }
+        if (query.getEntityClass() != entityClass) {
+            throw new HeliosException("Named query " + name + " returns " + query.getEntityClass().getName()
+                    + ", not " + entityClass.getName());
+        }
+        return (CompiledQuery<T>) query;
+    }
+
+    public boolean isEmpty() {
+        return queries.isEmpty();
+    }
+
+    /**
+     * Has the server parse and describe every query without executing it, and resolves their row
+     * mappers from the described result columns. All invalid queries are reported at once.
+     */
+    public void validate(Connection connection, ResultSetMapper resultSetMapper) {
+        List<String> problems = new ArrayList<>();
+
+        for (CompiledQuery<?> query : queries.values()) {
+            try (PreparedStatement statement = connection.prepareStatement(query.getSql())) {
+                ResultSetMetaData metaData = statement.getMetaData();
+                if (metaData == null) {
+                    problems.add(query.getName() + " does not return rows");
+                    continue;
+                }
+                query.rowMapper(metaData, resultSetMapper);
+            } catch (SQLException | HeliosException e) {
+                problems.add(query.getName() + ": " + e.getMessage());
+                rollback(connection);
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new HeliosException("Named query validation failed: " + String.join("; ", problems));
+        }
+        log.info("{} named queries validated", queries.size());
+    }
+
+    // Une erreur annule la transaction en cours, les requêtes suivantes ne pourraient plus être décrites
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            throw new HeliosException("Error while validating named queries", e);
+        }
+    }
+}
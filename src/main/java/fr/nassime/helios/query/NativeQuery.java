@@ -0,0 +1,17 @@
+package fr.nassime.helios.query;
+
+import java.util.Collections;
+
+public class NativeQuery extends QueryBuilder<NativeQuery> {
+
+    private NativeQuery(String sql) {
+        super();
+        query.append(sql);
+    }
+
+    public static NativeQuery create(String sql, Object... params) {
+        NativeQuery nativeQuery = new NativeQuery(sql);
+        Collections.addAll(nativeQuery.parameters, params);
+        return nativeQuery;
+    }
+}
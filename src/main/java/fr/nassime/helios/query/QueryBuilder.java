@@ -1,15 +1,14 @@
 package fr.nassime.helios.query;
 
 import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.types.SqlNull;
+import fr.nassime.helios.types.TypeConverters;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -61,17 +60,7 @@ public abstract class QueryBuilder<T extends QueryBuilder<T>> {
     }
 
     protected void setParameter(PreparedStatement statement, int index, Object value) throws SQLException {
-        if (value == null) {
-            statement.setNull(index, java.sql.Types.NULL);
-        } else if (value instanceof LocalDateTime) {
-            statement.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
-        } else if (value instanceof LocalDate) {
-            statement.setDate(index, java.sql.Date.valueOf((LocalDate) value));
-        } else if (value instanceof Enum) {
-            statement.setString(index, ((Enum<?>) value).name());
-        } else {
-            statement.setObject(index, value);
-        }
+        TypeConverters.bind(statement, index, value);
     }
 
     @SuppressWarnings("unchecked")
@@ -84,7 +73,7 @@ public abstract class QueryBuilder<T extends QueryBuilder<T>> {
                     query.append(" AND ");
                 }
 
-                if (entry.getValue() == null) {
+                if (entry.getValue() == null || entry.getValue() instanceof SqlNull) {
                     query.append(entry.getKey()).append(" IS NULL");
                 } else {
                     query.append(entry.getKey()).append(" = ?");
@@ -0,0 +1,198 @@
+package fr.nassime.helios.query;
+
+import fr.nassime.helios.metrics.HeliosInstrumentation;
+import fr.nassime.helios.metrics.StatementEvent;
+import fr.nassime.helios.transaction.Deadline;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class QueryExecutor {
+    private final HeliosInstrumentation instrumentation;
+
+    public <R> R query(Connection connection, QueryBuilder<?> builder, ResultSetHandler<R> handler) throws SQLException {
+        StatementTimer timer = new StatementTimer();
+        try (PreparedStatement statement = builder.prepareStatement(connection);
+             Deadline.Tracking tracking = Deadline.track(statement)) {
+            timer.prepared();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                timer.executed();
+                R result = handler.handle(resultSet);
+                timer.finish(builder, countRows(result), true, false);
+                return result;
+            }
+        } catch (RuntimeException | SQLException e) {
+            timer.finish(builder, 0, false, true);
+            rethrowTimeout(e);
+            throw e;
+        }
+    }
+
+    public int update(Connection connection, QueryBuilder<?> builder) throws SQLException {
+        StatementTimer timer = new StatementTimer();
+        try (PreparedStatement statement = builder.prepareStatement(connection);
+             Deadline.Tracking tracking = Deadline.track(statement)) {
+            timer.prepared();
+            int rowsAffected = statement.executeUpdate();
+            timer.executed();
+            timer.finish(builder, rowsAffected, false, false);
+            return rowsAffected;
+        } catch (RuntimeException | SQLException e) {
+            timer.finish(builder, 0, false, true);
+            rethrowTimeout(e);
+            throw e;
+        }
+    }
+
+    public <R> R updateWithGeneratedKeys(Connection connection, QueryBuilder<?> builder, ResultSetHandler<R> handler) throws SQLException {
+        StatementTimer timer = new StatementTimer();
+        try (PreparedStatement statement = builder.prepareStatementWithGeneratedKeys(connection);
+             Deadline.Tracking tracking = Deadline.track(statement)) {
+            timer.prepared();
+            int rowsAffected = statement.executeUpdate();
+            timer.executed();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                R result = handler.handle(generatedKeys);
+                timer.finish(builder, rowsAffected, false, false);
+                return result;
+            }
+        } catch (RuntimeException | SQLException e) {
+            timer.finish(builder, 0, false, true);
+            rethrowTimeout(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes a query through a server-side cursor fetching {@code fetchSize} rows at a time, so the
+     * handler can consume a result set larger than memory. The connection must not be in
+     * auto-commit mode. The handler returns the number of rows it processed.
+     */
+    public int stream(Connection connection, QueryBuilder<?> builder, int fetchSize,
+                      ResultSetHandler<Integer> handler) throws SQLException {
+        StatementTimer timer = new StatementTimer();
+        try (PreparedStatement statement = builder.prepareStatement(connection);
+             Deadline.Tracking tracking = Deadline.track(statement)) {
+            statement.setFetchSize(fetchSize);
+            timer.prepared();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                timer.executed();
+                int rows = handler.handle(resultSet);
+                timer.finish(builder, rows, true, false);
+                return rows;
+            }
+        } catch (RuntimeException | SQLException e) {
+            timer.finish(builder, 0, false, true);
+            rethrowTimeout(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes builders as JDBC batches, one per distinct SQL text, each sent to the server in a
+     * single round trip by the driver. Update counts are returned in the order of the builders.
+     */
+    public int[] batch(Connection connection, List<? extends QueryBuilder<?>> builders) throws SQLException {
+        int[] rowsAffected = new int[builders.size()];
+        if (builders.isEmpty()) {
+            return rowsAffected;
+        }
+
+        // Les colonnes paresseuses non chargées donnent des UPDATE différents pour une même entité
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < builders.size(); i++) {
+            groups.computeIfAbsent(builders.get(i).getQuery(), key -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            QueryBuilder<?> first = builders.get(indexes.get(0));
+            StatementTimer timer = new StatementTimer();
+            try (PreparedStatement statement = connection.prepareStatement(group.getKey());
+                 Deadline.Tracking tracking = Deadline.track(statement)) {
+                timer.prepared();
+                for (int index : indexes) {
+                    builders.get(index).setParameters(statement);
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                timer.executed();
+                for (int i = 0; i < counts.length; i++) {
+                    rowsAffected[indexes.get(i)] = counts[i];
+                }
+                timer.finish(first, Arrays.stream(counts).filter(count -> count > 0).sum(), false, false);
+            } catch (RuntimeException | SQLException e) {
+                timer.finish(first, 0, false, true);
+                rethrowTimeout(e);
+                throw e;
+            }
+        }
+        return rowsAffected;
+    }
+
+    private static void rethrowTimeout(Exception e) {
+        if (e instanceof SQLException sqlException) {
+            RuntimeException timeout = Deadline.translate(sqlException);
+            if (timeout != null) {
+                throw timeout;
+            }
+        }
+    }
+
+    private static int countRows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private class StatementTimer {
+        private final long start = System.nanoTime();
+        private long prepared;
+        private long executed;
+        private boolean finished;
+
+        void prepared() {
+            prepared = System.nanoTime();
+        }
+
+        void executed() {
+            executed = System.nanoTime();
+        }
+
+        void finish(QueryBuilder<?> builder, int rows, boolean resultSet, boolean failed) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            long end = System.nanoTime();
+            long prepareEnd = prepared == 0 ? end : prepared;
+            long executeEnd = executed == 0 ? end : executed;
+            instrumentation.onStatement(new StatementEvent(
+                    builder.getQuery(),
+                    builder.getParameters(),
+                    prepareEnd - start,
+                    executeEnd - prepareEnd,
+                    end - executeEnd,
+                    rows,
+                    resultSet,
+                    failed));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package fr.nassime.helios.query;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface ResultSetHandler<R> {
+    R handle(ResultSet resultSet) throws SQLException;
+}
@@ -53,6 +53,44 @@ public class SelectBuilder extends QueryBuilder<SelectBuilder> {
         return this;
     }
 
+    /**
+     * Locks the selected rows until the end of the transaction. Must come after {@link #limit}.
+     */
+    public SelectBuilder forUpdate() {
+        query.append(" FOR UPDATE");
+        return this;
+    }
+
+    /**
+     * Like {@link #forUpdate()}, without blocking inserts of rows referencing the locked ones, for
+     * updates that do not touch the key.
+     */
+    public SelectBuilder forNoKeyUpdate() {
+        query.append(" FOR NO KEY UPDATE");
+        return this;
+    }
+
+    public SelectBuilder forShare() {
+        query.append(" FOR SHARE");
+        return this;
+    }
+
+    /**
+     * Leaves out the rows locked by other transactions instead of waiting for them.
+     */
+    public SelectBuilder skipLocked() {
+        query.append(" SKIP LOCKED");
+        return this;
+    }
+
+    /**
+     * Fails immediately instead of waiting when a row is locked by another transaction.
+     */
+    public SelectBuilder noWait() {
+        query.append(" NOWAIT");
+        return this;
+    }
+
     public SelectBuilder groupBy(String... columns) {
         query.append(" GROUP BY ").append(String.join(", ", columns));
         return this;
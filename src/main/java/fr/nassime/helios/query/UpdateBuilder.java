@@ -1,5 +1,6 @@
 package fr.nassime.helios.query;
 
+import java.util.Collections;
 import java.util.Map;
 
 public class UpdateBuilder extends QueryBuilder<UpdateBuilder> {
@@ -39,6 +40,12 @@ public class UpdateBuilder extends QueryBuilder<UpdateBuilder> {
         return this;
     }
 
+    public UpdateBuilder whereCustom(String condition, Object... params) {
+        query.append(" WHERE ").append(condition);
+        Collections.addAll(parameters, params);
+        return this;
+    }
+
     public UpdateBuilder returning(String... columns) {
         query.append(" RETURNING ").append(String.join(", ", columns));
         return this;
@@ -0,0 +1,256 @@
+package fr.nassime.helios.relation;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.annotation.ManyToOne;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves an object graph through its cascade relations. Entities are ordered so that every row is
+ * written after the rows its foreign keys point to, then each level is flushed with one batched
+ * statement per entity type, instead of one round trip per entity. Join tables of
+ * {@code @ManyToMany} relations are synchronized last, once every id is known.
+ */
+@Slf4j
+public class CascadeSaver {
+    private final HeliosORM orm;
+    private final JoinTableSynchronizer joinTables;
+
+    public CascadeSaver(HeliosORM orm) {
+        this.orm = orm;
+        this.joinTables = new JoinTableSynchronizer(orm);
+    }
+
+    /**
+     * Returns the saved roots, in order. They are the given instances, except for records, which
+     * are replaced by copies carrying their new ids.
+     */
+    public List<Object> save(Collection<?> roots) {
+        Map<Object, Node> graph = collect(roots);
+        List<List<Node>> levels = levels(graph);
+
+        orm.executeInTransactionWithoutResult(connection -> {
+            for (List<Node> level : levels) {
+                saveLevel(level);
+            }
+            // Les deux côtés ont leurs ids une fois tous les niveaux écrits
+            joinTables.sync(connection, graph.keySet());
+        });
+        log.debug("Saved {} entities in {} levels", graph.size(), levels.size());
+        return roots.stream().map(root -> graph.get(root).entity).toList();
+    }
+
+    private Map<Object, Node> collect(Collection<?> roots) {
+        Map<Object, Node> graph = new IdentityHashMap<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        for (Object root : roots) {
+            node(graph, pending, root);
+        }
+
+        while (!pending.isEmpty()) {
+            Object entity = pending.poll();
+            Node node = graph.get(entity);
+            EntityMapper<?> mapper = orm.getEntityMapper(entity.getClass());
+
+            for (RelationInfo relation : mapper.getRelations()) {
+                if (!relation.isCascade()) {
+                    continue;
+                }
+                Object value = ReflectionUtils.getFieldValue(entity, relation.getField());
+                if (value == null) {
+                    continue;
+                }
+
+                Collection<?> targets = relation.isCollection() ? (Collection<?>) value : List.of(value);
+                for (Object target : targets) {
+                    if (target != null) {
+                        link(node, node(graph, pending, target), relation);
+                    }
+                }
+            }
+        }
+        return graph;
+    }
+
+    private Node node(Map<Object, Node> graph, Deque<Object> pending, Object entity) {
+        Node node = graph.get(entity);
+        if (node == null) {
+            node = new Node(entity);
+            graph.put(entity, node);
+            pending.add(entity);
+        }
+        return node;
+    }
+
+    private void link(Node owner, Node target, RelationInfo relation) {
+        switch (relation.getType()) {
+            case ONE_TO_MANY -> {
+                // Les enfants portent la clé étrangère vers le parent
+                Field foreignKey = mappedByColumn(relation.getTargetEntityClass(), relation.getMappedBy());
+                target.dependOn(owner, foreignKey);
+            }
+            case MANY_TO_ONE -> owner.dependOn(target, joinColumnField(owner.entity.getClass(), relation));
+            case ONE_TO_ONE -> {
+                if (relation.getMappedBy() == null || relation.getMappedBy().isEmpty()) {
+                    owner.dependOn(target, joinColumnField(owner.entity.getClass(), relation));
+                } else {
+                    target.dependOn(owner, mappedByColumn(relation.getTargetEntityClass(), relation.getMappedBy()));
+                }
+            }
+            // Les lignes de la table de jointure ne dépendent d'aucun ordre d'insertion
+            case MANY_TO_MANY -> {
+            }
+        }
+    }
+
+    private Field joinColumnField(Class<?> entityClass, RelationInfo relation) {
+        return orm.getEntityMapper(entityClass).getColumnField(relation.getJoinColumn());
+    }
+
+    /**
+     * Resolves the foreign key column on the owning side of a {@code mappedBy} relation. It may name
+     * either a column field or a {@code @ManyToOne} field, whose join column then holds the key.
+     */
+    private Field mappedByColumn(Class<?> entityClass, String mappedBy) {
+        if (mappedBy == null || mappedBy.isEmpty()) {
+            return null;
+        }
+        EntityMapper<?> mapper = orm.getEntityMapper(entityClass);
+        Field byColumn = mapper.getColumnField(mappedBy);
+        if (byColumn != null) {
+            return byColumn;
+        }
+
+        Field field;
+        try {
+            field = entityClass.getDeclaredField(mappedBy);
+        } catch (NoSuchFieldException e) {
+            throw new HeliosException("Field not found: " + mappedBy + " in " + entityClass.getName());
+        }
+        if (mapper.getColumnFieldMap().containsValue(field)) {
+            return field;
+        }
+        ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+        if (manyToOne != null) {
+            String joinColumn = manyToOne.joinColumn().isEmpty() ? field.getName() + "_id" : manyToOne.joinColumn();
+            return mapper.getColumnField(joinColumn);
+        }
+        return null;
+    }
+
+    private static List<List<Node>> levels(Map<Object, Node> graph) {
+        Map<Node, Integer> remaining = new IdentityHashMap<>();
+        List<Node> ready = new ArrayList<>();
+        for (Node node : graph.values()) {
+            remaining.put(node, node.dependencies.size());
+            if (node.dependencies.isEmpty()) {
+                ready.add(node);
+            }
+        }
+
+        List<List<Node>> levels = new ArrayList<>();
+        int placed = 0;
+        while (!ready.isEmpty()) {
+            levels.add(ready);
+            placed += ready.size();
+            List<Node> next = new ArrayList<>();
+            for (Node node : ready) {
+                for (Node dependent : node.dependents) {
+                    if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            ready = next;
+        }
+
+        if (placed != graph.size()) {
+            throw new HeliosException("Cannot cascade save: the object graph contains a foreign key cycle");
+        }
+        return levels;
+    }
+
+    private void saveLevel(List<Node> level) {
+        Map<Class<?>, List<Node>> inserts = new LinkedHashMap<>();
+        Map<Class<?>, List<Node>> updates = new LinkedHashMap<>();
+
+        for (Node node : level) {
+            node.assignForeignKeys();
+            Map<Class<?>, List<Node>> group = orm.isNew(node.entity) ? inserts : updates;
+            group.computeIfAbsent(node.entity.getClass(), key -> new ArrayList<>()).add(node);
+        }
+
+        for (List<Node> nodes : inserts.values()) {
+            List<Object> saved = orm.insertAll(nodes.stream().map(node -> node.entity).toList());
+            // Un record, forcément racine sans relation, est remplacé par sa copie portant l'id
+            for (int i = 0; i < nodes.size(); i++) {
+                nodes.get(i).entity = saved.get(i);
+            }
+        }
+        // Pas de write-behind : le graphe doit être écrit en entier dans cette transaction
+        updates.values().forEach(nodes -> orm.updateAllNow(nodes.stream().map(node -> node.entity).toList()));
+    }
+
+    private final class Node {
+        private Object entity;
+        private final Map<Node, Field> dependencies = new IdentityHashMap<>();
+        private final Set<Node> dependents = new LinkedHashSet<>();
+
+        private Node(Object entity) {
+            this.entity = entity;
+        }
+
+        private void dependOn(Node target, Field foreignKey) {
+            if (target == this) {
+                return;
+            }
+            if (!dependencies.containsKey(target) || foreignKey != null) {
+                dependencies.put(target, foreignKey);
+            }
+            target.dependents.add(this);
+        }
+
+        private void assignForeignKeys() {
+            dependencies.forEach((target, foreignKey) -> {
+                if (foreignKey != null) {
+                    Object id = orm.getEntityMapper(target.entity.getClass()).getIdValue(cast(target.entity));
+                    ReflectionUtils.setFieldValue(entity, foreignKey, convertKey(id, foreignKey.getType()));
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object entity) {
+        return (T) entity;
+    }
+
+    private static Object convertKey(Object id, Class<?> type) {
+        if (!(id instanceof Number number)) {
+            return id;
+        }
+        Class<?> wrapped = ReflectionUtils.wrap(type);
+        if (wrapped == Long.class) {
+            return number.longValue();
+        } else if (wrapped == Integer.class) {
+            return number.intValue();
+        } else if (wrapped == Short.class) {
+            return number.shortValue();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,129 @@
+package fr.nassime.helios.relation;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.NativeQuery;
+import fr.nassime.helios.types.TypeConverter;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@code @ManyToMany} collections to their join table. The rows of all owners are read in
+ * one query, diffed against the in-memory collections, and the delta is applied with one insert and
+ * one delete per relation. A {@code null} collection is treated as not loaded and left untouched, and
+ * the elements added to a never loaded placeholder (see {@link UnloadedCollections}) are only inserted.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JoinTableSynchronizer {
+    private final HeliosORM orm;
+
+    public void sync(Connection connection, Collection<?> entities) {
+        Map<RelationInfo, List<Object>> owners = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            for (RelationInfo relation : orm.getEntityMapper(entity.getClass()).getRelations()) {
+                if (relation.getType() != RelationType.MANY_TO_MANY) {
+                    continue;
+                }
+                Object collection = ReflectionUtils.getFieldValue(entity, relation.getField());
+                if (collection != null && !(UnloadedCollections.isPlaceholder(collection)
+                        && ((Collection<?>) collection).isEmpty())) {
+                    owners.computeIfAbsent(relation, key -> new ArrayList<>()).add(entity);
+                }
+            }
+        }
+
+        owners.forEach((relation, relationOwners) -> sync(connection, relation, relationOwners));
+    }
+
+    private void sync(Connection connection, RelationInfo relation, List<Object> owners) {
+        EntityMapper<Object> ownerMapper = mapper(owners.get(0).getClass());
+        EntityMapper<Object> targetMapper = mapper(relation.getTargetEntityClass());
+
+        List<Object> ownerIds = new ArrayList<>(owners.size());
+        Set<Object> additiveOwnerIds = new HashSet<>();
+        Set<List<Object>> wanted = new LinkedHashSet<>();
+        for (Object owner : owners) {
+            Object ownerId = ownerMapper.getIdValue(owner);
+            ownerIds.add(ownerId);
+            Collection<?> targets = (Collection<?>) ReflectionUtils.getFieldValue(owner, relation.getField());
+            if (UnloadedCollections.isPlaceholder(targets)) {
+                additiveOwnerIds.add(ownerId);
+            }
+            for (Object target : targets) {
+                Object targetId = targetMapper.getIdValue(target);
+                if (targetId == null || orm.isNew(target)) {
+                    throw new HeliosException("Cannot link unsaved " + target.getClass().getSimpleName()
+                            + " through " + relation.getJoinTable());
+                }
+                wanted.add(List.of(ownerId, targetId));
+            }
+        }
+
+        String joinTable = relation.getJoinTable();
+        String joinColumn = relation.getJoinColumn();
+        String inverseJoinColumn = relation.getInverseJoinColumn();
+        TypeConverter<?> ownerConverter = ownerMapper.getColumnConverter(ownerMapper.getIdColumnName());
+        TypeConverter<?> targetConverter = targetMapper.getColumnConverter(targetMapper.getIdColumnName());
+
+        try {
+            Set<List<Object>> existing = orm.getQueryExecutor().query(connection, NativeQuery.create(
+                    "SELECT " + joinColumn + ", " + inverseJoinColumn + " FROM " + joinTable
+                            + " WHERE " + joinColumn + " = ANY(?)", ownerIds), resultSet -> {
+                Set<List<Object>> rows = new HashSet<>();
+                while (resultSet.next()) {
+                    rows.add(List.of(ownerConverter.read(resultSet, 1), targetConverter.read(resultSet, 2)));
+                }
+                return rows;
+            });
+
+            List<List<Object>> added = wanted.stream().filter(pair -> !existing.contains(pair)).toList();
+            List<List<Object>> removed = existing.stream()
+                    .filter(pair -> !wanted.contains(pair) && !additiveOwnerIds.contains(pair.get(0)))
+                    .toList();
+
+            // unnest garde deux paramètres quel que soit le nombre de lignes
+            if (!added.isEmpty()) {
+                orm.getQueryExecutor().update(connection, NativeQuery.create(
+                        "INSERT INTO " + joinTable + " (" + joinColumn + ", " + inverseJoinColumn + ")"
+                                + " SELECT * FROM unnest(?, ?) ON CONFLICT DO NOTHING",
+                        column(added, 0), column(added, 1)));
+            }
+            if (!removed.isEmpty()) {
+                orm.getQueryExecutor().update(connection, NativeQuery.create(
+                        "DELETE FROM " + joinTable + " j USING unnest(?, ?) AS d(owner_id, target_id)"
+                                + " WHERE j." + joinColumn + " = d.owner_id AND j." + inverseJoinColumn + " = d.target_id",
+                        column(removed, 0), column(removed, 1)));
+            }
+
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                orm.getInvalidationBus().publishTable(connection, joinTable);
+                log.debug("Synchronized {}: {} rows added, {} removed", joinTable, added.size(), removed.size());
+            }
+        } catch (SQLException e) {
+            throw new HeliosException("Error while synchronizing join table " + joinTable, e);
+        }
+    }
+
+    private static List<Object> column(List<List<Object>> pairs, int index) {
+        return pairs.stream().map(pair -> pair.get(index)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityMapper<Object> mapper(Class<?> entityClass) {
+        return (EntityMapper<Object>) orm.getEntityMapper(entityClass);
+    }
+}
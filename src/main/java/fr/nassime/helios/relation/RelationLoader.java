@@ -10,8 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -21,6 +19,7 @@ public class RelationLoader {
     private final HeliosORM orm;
 
     public <T> void loadRelation(T entity, RelationInfo relationInfo) {
+        orm.getInstrumentation().onRelationLoad(entity.getClass(), relationInfo);
         try {
             switch (relationInfo.getType()) {
                 case ONE_TO_ONE:
@@ -124,23 +123,25 @@ public class RelationLoader {
         Object primaryKeyValue = ReflectionUtils.getFieldValue(entity, sourceMapper.getIdField());
 
         if (primaryKeyValue != null) {
-            List<?> relatedEntities = orm.executeInTransaction(connection -> {
+            List<?> relatedEntities = orm.executeInReadOnlyTransaction(connection -> {
                 try {
-                    String targetTable = orm.getEntityMapper(relationInfo.getTargetEntityClass()).getTableName();
-                    String targetIdColumn = orm.getEntityMapper(relationInfo.getTargetEntityClass()).getIdColumnName();
+                    EntityMapper<?> targetMapper = orm.getEntityMapper(relationInfo.getTargetEntityClass());
+                    String targetTable = targetMapper.getTableName();
+                    String targetIdColumn = targetMapper.getIdColumnName();
+                    // Mêmes colonnes que les autres lectures : les colonnes paresseuses restent à charger
+                    List<String> columns = targetMapper.getSelectColumns().isEmpty()
+                            ? List.of("t.*")
+                            : targetMapper.getSelectColumns().stream().map(column -> "t." + column).toList();
 
                     SelectBuilder selectBuilder = SelectBuilder.create()
-                            .columns("t.*")
+                            .columns(columns)
                             .from(targetTable + " t")
                             .innerJoin(relationInfo.getJoinTable() + " j",
                                     "t." + targetIdColumn + " = j." + relationInfo.getInverseJoinColumn())
                             .where(Collections.singletonMap("j." + relationInfo.getJoinColumn(), primaryKeyValue));
 
-                    try (PreparedStatement statement = selectBuilder.prepareStatement(connection);
-                         ResultSet resultSet = statement.executeQuery()) {
-
-                        return orm.getResultSetMapper().mapToList(resultSet, relationInfo.getTargetEntityClass());
-                    }
+                    return orm.getQueryExecutor().query(connection, selectBuilder,
+                            resultSet -> orm.getResultSetMapper().mapToList(resultSet, relationInfo.getTargetEntityClass()));
                 } catch (SQLException e) {
                     throw new HeliosException("Error whyle loading relation ManyToMany", e);
                 }
@@ -0,0 +1,34 @@
+package fr.nassime.helios.relation;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Placeholders put in the {@code @ManyToMany} collections that an entity initializes itself
+ * ({@code = new ArrayList<>()}) when it is read, so that saving it does not take the empty collection for the
+ * real one and delete every link. Loading the relation or assigning another collection replaces
+ * the placeholder; elements added to the placeholder itself are inserted without removing anything.
+ */
+public class UnloadedCollections {
+
+    public static Collection<Object> placeholder(Field field) {
+        if (field.getType().isAssignableFrom(UnloadedList.class)) {
+            return new UnloadedList();
+        } else if (field.getType().isAssignableFrom(UnloadedSet.class)) {
+            return new UnloadedSet();
+        }
+        return null;
+    }
+
+    public static boolean isPlaceholder(Object collection) {
+        return collection instanceof UnloadedList || collection instanceof UnloadedSet;
+    }
+
+    private static final class UnloadedList extends ArrayList<Object> {
+    }
+
+    private static final class UnloadedSet extends HashSet<Object> {
+    }
+}
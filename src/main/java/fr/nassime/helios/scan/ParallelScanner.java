@@ -0,0 +1,217 @@
+package fr.nassime.helios.scan;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.mapping.RowMapper;
+import fr.nassime.helios.query.NativeQuery;
+import fr.nassime.helios.query.SelectBuilder;
+import fr.nassime.helios.transaction.Deadline;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Scans a whole table in parallel. The table is split into id ranges when the id is numeric, or
+ * into physical page ({@code ctid}) ranges otherwise; each range is read on its own pooled
+ * connection through a streaming cursor and handed to the consumer in chunks.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ParallelScanner {
+    private final HeliosORM orm;
+
+    public <T> long scan(Class<T> entityClass, Consumer<List<T>> consumer, ScanConfig config) {
+        EntityMapper<T> mapper = orm.getEntityMapper(entityClass);
+        int poolSize = orm.getConnectionManager().getMaxPoolSize();
+        // Le snapshot partagé immobilise une connexion pendant tout le scan
+        int available = config.isConsistentSnapshot() ? Math.max(1, poolSize - 1) : poolSize;
+        int parallelism = config.getParallelism() > 0 ? Math.min(config.getParallelism(), available) : available;
+        int partitions = config.getPartitions() > 0 ? config.getPartitions() : parallelism * 4;
+
+        if (!config.isConsistentSnapshot()) {
+            List<String> ranges = orm.executeInReadOnlyTransaction(
+                    connection -> ranges(connection, mapper, partitions));
+            return run(mapper, consumer, config, ranges, parallelism, null);
+        }
+
+        try (Connection coordinator = orm.getConnection()) {
+            coordinator.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            String snapshot = orm.getQueryExecutor().query(coordinator,
+                    NativeQuery.create("SELECT pg_export_snapshot()"), resultSet -> {
+                        resultSet.next();
+                        return resultSet.getString(1);
+                    });
+            try {
+                List<String> ranges = ranges(coordinator, mapper, partitions);
+                return run(mapper, consumer, config, ranges, parallelism, snapshot);
+            } finally {
+                coordinator.rollback();
+            }
+        } catch (SQLException e) {
+            throw new HeliosException("Error while exporting the scan snapshot", e);
+        }
+    }
+
+    private <T> long run(EntityMapper<T> mapper, Consumer<List<T>> consumer, ScanConfig config,
+                         List<String> ranges, int parallelism, String snapshot) {
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+
+        AtomicLong rows = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Callable<Void>> tasks = new ArrayList<>(ranges.size());
+        for (String range : ranges) {
+            // Les workers gardent le budget de l'appelant
+            Supplier<Integer> scan = Deadline.propagate(() -> scanRange(mapper, consumer, config, range, snapshot));
+            tasks.add(() -> {
+                if (!failed.get()) {
+                    try {
+                        rows.addAndGet(scan.get());
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, ranges.size()));
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HeliosException("Parallel scan of " + mapper.getTableName() + " interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HeliosException heliosException) {
+                throw heliosException;
+            }
+            throw new HeliosException("Error during parallel scan of " + mapper.getTableName(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        log.debug("Scanned {} rows of {} in {} ranges", rows.get(), mapper.getTableName(), ranges.size());
+        return rows.get();
+    }
+
+    private <T> int scanRange(EntityMapper<T> mapper, Consumer<List<T>> consumer, ScanConfig config,
+                              String range, String snapshot) {
+        try (Connection connection = snapshot != null ? orm.getConnection() : orm.getReadConnection()) {
+            if (snapshot != null) {
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+                }
+            }
+
+            SelectBuilder selectBuilder = SelectBuilder.create()
+                    .columns(mapper.getSelectColumns())
+                    .from(mapper.getTableName())
+                    .whereCustom(range);
+
+            try {
+                return orm.getQueryExecutor().stream(connection, selectBuilder, config.getFetchSize(), resultSet -> {
+                    RowMapper<T> rowMapper = orm.getResultSetMapper()
+                            .createRowMapper(resultSet.getMetaData(), mapper.getEntityClass());
+                    List<T> chunk = new ArrayList<>(config.getChunkSize());
+                    int count = 0;
+                    while (resultSet.next()) {
+                        chunk.add(rowMapper.mapRow(resultSet));
+                        count++;
+                        if (chunk.size() == config.getChunkSize()) {
+                            consumer.accept(chunk);
+                            chunk = new ArrayList<>(config.getChunkSize());
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        consumer.accept(chunk);
+                    }
+                    return count;
+                });
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new HeliosException("Error while scanning " + mapper.getTableName() + " where " + range, e);
+        }
+    }
+
+    /**
+     * Splits the table into at most {@code partitions} conditions covering every row.
+     */
+    private List<String> ranges(Connection connection, EntityMapper<?> mapper, int partitions) {
+        String idColumn = mapper.getIdColumnName();
+        Class<?> idType = ReflectionUtils.wrap(mapper.getIdField().getType());
+        boolean numericId = idType == Long.class || idType == Integer.class || idType == Short.class;
+
+        try {
+            if (numericId) {
+                long[] bounds = orm.getQueryExecutor().query(connection, NativeQuery.create(
+                        "SELECT min(" + idColumn + "), max(" + idColumn + ") FROM " + mapper.getTableName()), resultSet -> {
+                    resultSet.next();
+                    long min = resultSet.getLong(1);
+                    return resultSet.wasNull() ? null : new long[]{min, resultSet.getLong(2)};
+                });
+                return bounds == null ? List.of() : idRanges(idColumn, bounds[0], bounds[1], partitions);
+            }
+
+            long pages = orm.getQueryExecutor().query(connection, NativeQuery.create(
+                    "SELECT pg_relation_size(?::regclass) / current_setting('block_size')::int",
+                    mapper.getTableName()), resultSet -> {
+                resultSet.next();
+                return resultSet.getLong(1);
+            });
+            return pageRanges(pages, partitions);
+        } catch (SQLException e) {
+            throw new HeliosException("Error while partitioning " + mapper.getTableName(), e);
+        }
+    }
+
+    private static List<String> idRanges(String idColumn, long min, long max, int partitions) {
+        long span = max - min + 1;
+        long width = Math.max(1, span / partitions + (span % partitions == 0 ? 0 : 1));
+        List<String> ranges = new ArrayList<>();
+        for (long start = min; start <= max; start += width) {
+            long end = Math.min(max, start + width - 1);
+            if (end == max) {
+                // Ouverte comme pour les pages, pour les lignes insérées depuis le calcul des bornes
+                ranges.add(idColumn + " >= " + start);
+                break;
+            }
+            ranges.add(idColumn + " BETWEEN " + start + " AND " + end);
+        }
+        return ranges;
+    }
+
+    // La dernière plage reste ouverte pour couvrir les pages ajoutées pendant le scan
+    private static List<String> pageRanges(long pages, int partitions) {
+        long width = Math.max(1, pages / partitions + (pages % partitions == 0 ? 0 : 1));
+        List<String> ranges = new ArrayList<>();
+        long start = 0;
+        while (start + width < pages) {
+            ranges.add("ctid >= '(" + start + ",0)'::tid AND ctid < '(" + (start + width) + ",0)'::tid");
+            start += width;
+        }
+        ranges.add("ctid >= '(" + start + ",0)'::tid");
+        return ranges;
+    }
+}
@@ -0,0 +1,36 @@
+package fr.nassime.helios.scan;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ScanConfig {
+    /**
+     * Number of ranges scanned concurrently. {@code 0} uses the primary pool size.
+     */
+    @Builder.Default
+    private int parallelism = 0;
+    /**
+     * Number of ranges the table is split into. {@code 0} uses four ranges per worker, so that a
+     * skewed range does not leave the other workers idle.
+     */
+    @Builder.Default
+    private int partitions = 0;
+    /**
+     * Rows fetched from the server per cursor round trip.
+     */
+    @Builder.Default
+    private int fetchSize = 1000;
+    /**
+     * Number of entities handed to the consumer at once.
+     */
+    @Builder.Default
+    private int chunkSize = 1000;
+    /**
+     * Whether every range reads the same exported snapshot, so the scan sees the table as of a single
+     * point in time. Costs one extra connection held for the whole scan, always on the primary.
+     */
+    @Builder.Default
+    private boolean consistentSnapshot = false;
+}
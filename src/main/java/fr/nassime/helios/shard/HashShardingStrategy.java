@@ -0,0 +1,32 @@
+package fr.nassime.helios.shard;
+
+import fr.nassime.helios.exception.HeliosException;
+
+/**
+ * Spreads keys evenly by hash. Integral numbers hash by value, so an {@code int} and a {@code long}
+ * key with the same value always land on the same shard.
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+    @Override
+    public int shardFor(Object key, int shardCount) {
+        if (key == null) {
+            throw new HeliosException("Shard key cannot be null");
+        }
+
+        long hash = key instanceof Number number && !(key instanceof Double || key instanceof Float)
+                ? number.longValue()
+                : key.hashCode();
+        return Math.floorMod(mix(hash), shardCount);
+    }
+
+    // Finaliseur de MurmurHash3, pour que des clés séquentielles ne tombent pas en escalier
+    private static int mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+}
@@ -0,0 +1,47 @@
+package fr.nassime.helios.shard;
+
+import fr.nassime.helios.exception.HeliosException;
+
+import java.util.List;
+
+/**
+ * Assigns keys by range: shard {@code i} owns the keys lower than {@code upperBounds[i]} and the last
+ * shard owns everything else, so there must be one bound less than there are shards.
+ */
+public class RangeShardingStrategy implements ShardingStrategy {
+    private final List<? extends Comparable<?>> upperBounds;
+
+    public RangeShardingStrategy(List<? extends Comparable<?>> upperBounds) {
+        this.upperBounds = List.copyOf(upperBounds);
+    }
+
+    @Override
+    public int shardFor(Object key, int shardCount) {
+        if (key == null) {
+            throw new HeliosException("Shard key cannot be null");
+        }
+        if (upperBounds.size() != shardCount - 1) {
+            throw new HeliosException("Expected " + (shardCount - 1) + " range bounds for "
+                    + shardCount + " shards, got " + upperBounds.size());
+        }
+
+        for (int i = 0; i < upperBounds.size(); i++) {
+            if (compare(key, upperBounds.get(i)) < 0) {
+                return i;
+            }
+        }
+        return shardCount - 1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object key, Object bound) {
+        if (key instanceof Number number && bound instanceof Number boundNumber
+                && !(key instanceof Double || key instanceof Float)) {
+            return Long.compare(number.longValue(), boundNumber.longValue());
+        }
+        if (!(key instanceof Comparable comparable)) {
+            throw new HeliosException("Range shard key must be comparable: " + key.getClass().getName());
+        }
+        return comparable.compareTo(bound);
+    }
+}
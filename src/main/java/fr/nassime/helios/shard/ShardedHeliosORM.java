@@ -0,0 +1,396 @@
+package fr.nassime.helios.shard;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.annotation.ShardKey;
+import fr.nassime.helios.connection.DataSourceConfig;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.transaction.Deadline;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Spreads entities over several databases, one {@link HeliosORM} per shard. Single-entity operations
+ * go to the shard owning the entity's {@link ShardKey} (its id by default); queries that cannot be
+ * routed are run on every shard in parallel and merged. Relations are loaded from the shard of the
+ * owning entity, so related rows are expected to be co-located with it.
+ */
+@Slf4j
+public class ShardedHeliosORM implements AutoCloseable {
+    private final List<HeliosORM> shards;
+    private final ShardingStrategy strategy;
+    private final ExecutorService executor;
+    private final Map<Class<?>, Field> shardKeyFields = new ConcurrentHashMap<>();
+    private volatile Comparator<String> textComparator;
+
+    private ShardedHeliosORM(List<HeliosORM> shards, ShardingStrategy strategy) {
+        this.shards = shards;
+        this.strategy = strategy;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "helios-shard-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Sharded Helios ORM initialized with {} shards", shards.size());
+    }
+
+    public static ShardedHeliosORM create(List<DataSourceConfig> shardConfigs, ShardingStrategy strategy) {
+        if (shardConfigs.isEmpty()) {
+            throw new HeliosException("At least one shard is required");
+        }
+
+        List<HeliosORM> shards = new ArrayList<>();
+        try {
+            for (DataSourceConfig config : shardConfigs) {
+                shards.add(HeliosORM.create(config));
+            }
+        } catch (RuntimeException e) {
+            shards.forEach(HeliosORM::close);
+            throw e;
+        }
+        return new ShardedHeliosORM(Collections.unmodifiableList(shards), strategy);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public HeliosORM getShard(int index) {
+        return shards.get(index);
+    }
+
+    public List<HeliosORM> getShards() {
+        return shards;
+    }
+
+    public HeliosORM shardFor(Class<?> entityClass, Object shardKey) {
+        return shards.get(strategy.shardFor(shardKey, shards.size()));
+    }
+
+    public <T> HeliosORM shardFor(T entity) {
+        Object shardKey = ReflectionUtils.getFieldValue(entity, getShardKeyField(entity.getClass()));
+        if (shardKey == null) {
+            throw new HeliosException("Shard key of " + entity.getClass().getName()
+                    + " must be set before the entity can be routed");
+        }
+        return shardFor(entity.getClass(), shardKey);
+    }
+
+    public <T, ID> Optional<T> findById(Class<T> entityClass, ID id) {
+        if (isShardedById(entityClass)) {
+            return shardFor(entityClass, id).findById(entityClass, id);
+        }
+
+        for (Optional<T> result : scatter(shard -> shard.findById(entityClass, id))) {
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sends each shard only the ids it owns when entities are sharded by id, otherwise asks every
+     * shard for all of them. The result follows the order of the ids.
+     */
+    public <T, ID> List<T> findAllById(Class<T> entityClass, Collection<ID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<List<T>> results;
+        if (isShardedById(entityClass)) {
+            Map<HeliosORM, List<ID>> idsByShard = new LinkedHashMap<>();
+            for (ID id : ids) {
+                idsByShard.computeIfAbsent(shardFor(entityClass, id), shard -> new ArrayList<>()).add(id);
+            }
+            results = scatter(shard -> shard.findAllById(entityClass, idsByShard.getOrDefault(shard, List.of())));
+        } else {
+            results = scatter(shard -> shard.findAllById(entityClass, ids));
+        }
+
+        EntityMapper<T> mapper = getEntityMapper(entityClass);
+        Map<Object, T> byId = new HashMap<>();
+        for (List<T> result : results) {
+            for (T entity : result) {
+                byId.put(EntityMapper.idKey(mapper.getIdValue(entity)), entity);
+            }
+        }
+        List<T> entities = new ArrayList<>(byId.size());
+        for (Object id : new LinkedHashSet<>(ids)) {
+            T entity = byId.get(EntityMapper.idKey(id));
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    public <T, ID> boolean existsById(Class<T> entityClass, ID id) {
+        if (isShardedById(entityClass)) {
+            return shardFor(entityClass, id).existsById(entityClass, id);
+        }
+        return scatter(shard -> shard.existsById(entityClass, id)).contains(true);
+    }
+
+    public <T> boolean existsBy(Class<T> entityClass, Map<String, Object> conditions) {
+        HeliosORM owner = routeByConditions(entityClass, conditions);
+        if (owner != null) {
+            return owner.existsBy(entityClass, conditions);
+        }
+        return scatter(shard -> shard.existsBy(entityClass, conditions)).contains(true);
+    }
+
+    public long count(Class<?> entityClass) {
+        return scatter(shard -> shard.count(entityClass)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long count(Class<?> entityClass, Map<String, Object> conditions) {
+        HeliosORM owner = routeByConditions(entityClass, conditions);
+        if (owner != null) {
+            return owner.count(entityClass, conditions);
+        }
+        return scatter(shard -> shard.count(entityClass, conditions)).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public <T> List<T> findAll(Class<T> entityClass) {
+        return concat(scatter(shard -> shard.findAll(entityClass)));
+    }
+
+    public <T> List<T> findByConditions(Class<T> entityClass, Map<String, Object> conditions) {
+        HeliosORM owner = routeByConditions(entityClass, conditions);
+        if (owner != null) {
+            return owner.findByConditions(entityClass, conditions);
+        }
+        return concat(scatter(shard -> shard.findByConditions(entityClass, conditions)));
+    }
+
+    /**
+     * Runs the ordered and limited query on every shard, then merges the per-shard sorted results
+     * until {@code limit} entities have been produced. Null values sort like PostgreSQL does, last
+     * in ascending order, enums in declaration order and text in the database collation.
+     */
+    public <T> List<T> findByConditions(Class<T> entityClass, Map<String, Object> conditions,
+                                        String orderBy, boolean ascending, int limit) {
+        HeliosORM owner = routeByConditions(entityClass, conditions);
+        if (owner != null) {
+            return owner.findByConditions(entityClass, conditions, orderBy, ascending, limit);
+        }
+
+        List<List<T>> results = scatter(shard ->
+                shard.findByConditions(entityClass, conditions, orderBy, ascending, limit));
+        return mergeSorted(results, comparatorFor(entityClass, orderBy, ascending), limit);
+    }
+
+    public <T> T save(T entity) {
+        return shardFor(entity).save(entity);
+    }
+
+    public <T> boolean delete(T entity) {
+        return shardFor(entity).delete(entity);
+    }
+
+    /**
+     * Runs an operation on every shard in parallel and returns the results in shard order.
+     */
+    public <R> List<R> scatter(Function<HeliosORM, R> operation) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (HeliosORM shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(Deadline.propagate(() -> operation.apply(shard)), executor));
+        }
+
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new HeliosException("Error while querying shards", e.getCause());
+        }
+        return results;
+    }
+
+    private <T> HeliosORM routeByConditions(Class<T> entityClass, Map<String, Object> conditions) {
+        if (conditions == null) {
+            return null;
+        }
+        String shardKeyColumn = ReflectionUtils.getColumnName(getShardKeyField(entityClass));
+        Object shardKey = conditions.get(shardKeyColumn);
+        return shardKey != null ? shardFor(entityClass, shardKey) : null;
+    }
+
+    private boolean isShardedById(Class<?> entityClass) {
+        return getShardKeyField(entityClass).equals(getEntityMapper(entityClass).getIdField());
+    }
+
+    private Field getShardKeyField(Class<?> entityClass) {
+        return shardKeyFields.computeIfAbsent(entityClass, type -> {
+            for (Field field : ReflectionUtils.getColumnFields(type)) {
+                if (field.isAnnotationPresent(ShardKey.class)) {
+                    return field;
+                }
+            }
+            return getEntityMapper(type).getIdField();
+        });
+    }
+
+    private <T> EntityMapper<T> getEntityMapper(Class<T> entityClass) {
+        return shards.get(0).getEntityMapper(entityClass);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Comparator<T> comparatorFor(Class<T> entityClass, String orderBy, boolean ascending) {
+        Field field = getEntityMapper(entityClass).getColumnField(orderBy);
+        if (field == null) {
+            throw new HeliosException("Cannot merge shards on unknown column " + orderBy);
+        }
+
+        // L'ordre de fusion doit reproduire celui de PostgreSQL sur chaque shard
+        Class<?> type = ReflectionUtils.wrap(field.getType());
+        Comparator valueComparator;
+        if (type.isEnum()) {
+            valueComparator = Comparator.comparingInt(value -> ((Enum<?>) value).ordinal());
+        } else if (type == String.class || type == Character.class) {
+            valueComparator = Comparator.comparing(Object::toString, textComparator());
+        } else if (type == UUID.class) {
+            // PostgreSQL compare les octets non signés, UUID.compareTo des long signés
+            valueComparator = Comparator.comparing(Object::toString);
+        } else if (Comparable.class.isAssignableFrom(type)) {
+            valueComparator = Comparator.naturalOrder();
+        } else {
+            throw new HeliosException("Cannot merge shards on column " + orderBy + " of type " + type.getName());
+        }
+
+        Comparator<T> comparator = Comparator.comparing(
+                entity -> ReflectionUtils.getFieldValue(entity, field),
+                Comparator.nullsLast(valueComparator));
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    /**
+     * Text order of the database collation of the first shard: code point order for {@code C} and
+     * {@code POSIX}, otherwise a {@link Collator} for its locale. Java collators approximate the
+     * libc and ICU ones, and columns declared with their own {@code COLLATE} are not taken into
+     * account, so results merged on such columns may differ slightly from a single database.
+     */
+    private Comparator<String> textComparator() {
+        Comparator<String> comparator = textComparator;
+        if (comparator == null) {
+            List<Map<String, Object>> rows = shards.get(0).executeQueryForMaps(
+                    "SELECT datcollate FROM pg_database WHERE datname = current_database()");
+            String collation = rows.isEmpty() ? "C" : String.valueOf(rows.get(0).get("datcollate"));
+            comparator = textComparator(collation);
+            textComparator = comparator;
+        }
+        return comparator;
+    }
+
+    private static Comparator<String> textComparator(String collation) {
+        Comparator<String> codePoints = ShardedHeliosORM::compareCodePoints;
+        String locale = collation.contains(".") ? collation.substring(0, collation.indexOf('.')) : collation;
+        if (locale.isEmpty() || locale.equals("C") || locale.equals("POSIX")) {
+            return codePoints;
+        }
+
+        Collator collator = Collator.getInstance(Locale.forLanguageTag(locale.replace('_', '-')));
+        collator.setStrength(Collator.TERTIARY);
+        // Les collations déterministes départagent les chaînes équivalentes octet par octet
+        return Comparator.<String, String>comparing(value -> value, collator::compare).thenComparing(codePoints);
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int left = a.codePointAt(i);
+            int right = b.codePointAt(j);
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+            j += Character.charCount(right);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static <T> List<T> concat(List<List<T>> results) {
+        List<T> merged = new ArrayList<>(results.stream().mapToInt(List::size).sum());
+        results.forEach(merged::addAll);
+        return merged;
+    }
+
+    private static <T> List<T> mergeSorted(List<List<T>> results, Comparator<T> comparator, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(
+                Math.max(1, results.size()), (a, b) -> comparator.compare(a.current, b.current));
+        for (List<T> result : results) {
+            Iterator<T> iterator = result.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor<>(iterator));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Cursor<T> head = heads.poll();
+            merged.add(head.current);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        shards.forEach(HeliosORM::close);
+    }
+
+    private static final class Cursor<T> {
+        private final Iterator<T> iterator;
+        private T current;
+
+        private Cursor(Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            current = iterator.next();
+            return true;
+        }
+    }
+}
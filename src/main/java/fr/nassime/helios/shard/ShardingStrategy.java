@@ -0,0 +1,9 @@
+package fr.nassime.helios.shard;
+
+public interface ShardingStrategy {
+
+    /**
+     * Returns the index, between {@code 0} and {@code shardCount - 1}, of the shard owning the key.
+     */
+    int shardFor(Object key, int shardCount);
+}
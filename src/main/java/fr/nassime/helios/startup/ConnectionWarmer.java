@@ -0,0 +1,118 @@
+package fr.nassime.helios.startup;
+
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.DeleteBuilder;
+import fr.nassime.helios.query.InsertBuilder;
+import fr.nassime.helios.query.QueryBuilder;
+import fr.nassime.helios.query.SelectBuilder;
+import fr.nassime.helios.query.UpdateBuilder;
+import fr.nassime.helios.util.ReflectionUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Opens {@code minIdle} pooled connections up front and has the server parse and describe every
+ * entity's CRUD statements on each of them, so that connection setup, catalog cache loading on
+ * the backend and SQL errors all happen before the first request instead of during it.
+ */
+@Slf4j
+public class ConnectionWarmer {
+
+    public interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    public void warmUp(ConnectionSupplier connections, int connectionCount, Collection<EntityMapper<?>> mappers) {
+        List<String> statements = new ArrayList<>();
+        for (EntityMapper<?> mapper : mappers) {
+            statements.addAll(crudStatements(mapper));
+        }
+
+        int count = Math.max(1, connectionCount);
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                tasks.add(() -> {
+                    warmConnection(connections, statements);
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            log.info("Warmed up {} connections with {} statements", count, statements.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Connection warm-up failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void warmConnection(ConnectionSupplier connections, List<String> statements) throws SQLException {
+        try (Connection connection = connections.get()) {
+            for (String sql : statements) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    // Forces a Parse/Describe round trip without executing anything
+                    statement.getParameterMetaData();
+                }
+            }
+            connection.rollback();
+        }
+    }
+
+    private <T> List<String> crudStatements(EntityMapper<T> mapper) {
+        List<QueryBuilder<?>> builders = new ArrayList<>();
+        String tableName = mapper.getTableName();
+        String idColumn = mapper.getIdColumnName();
+        Map<String, Object> byId = Collections.singletonMap(idColumn, 0);
+
+        builders.add(SelectBuilder.create().columns(mapper.getSelectColumns()).from(tableName));
+        builders.add(SelectBuilder.create().columns(mapper.getSelectColumns()).from(tableName).where(byId));
+        builders.add(DeleteBuilder.create().from(tableName).where(byId));
+
+        // Build the write statements from a blank entity so the column order matches runtime SQL
+        T blank;
+        try {
+            blank = mapper.isRecord()
+                    ? mapper.instantiate(mapper.newArguments())
+                    : ReflectionUtils.newInstance(mapper.getEntityClass());
+        } catch (RuntimeException e) {
+            log.debug("Skipping write statement warm-up for {}", mapper.getEntityClass().getName());
+            return builders.stream().<String>map(QueryBuilder::getQuery).toList();
+        }
+
+        Map<String, Object> insertValues = mapper.toColumnValues(blank, false);
+        if (!insertValues.isEmpty()) {
+            InsertBuilder insertBuilder = InsertBuilder.create().into(tableName).values(insertValues);
+            if (mapper.isIdGenerated()) {
+                insertBuilder.returning(idColumn);
+            }
+            builders.add(insertBuilder);
+        }
+
+        Map<String, Object> updateValues = mapper.toColumnValues(blank, true);
+        updateValues.remove(idColumn);
+        if (!updateValues.isEmpty()) {
+            builders.add(UpdateBuilder.create().table(tableName).set(updateValues).where(byId));
+        }
+
+        return builders.stream().<String>map(QueryBuilder::getQuery).toList();
+    }
+}
@@ -0,0 +1,34 @@
+package fr.nassime.helios.startup;
+
+import fr.nassime.helios.annotation.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Slf4j
+public class EntityScanner {
+
+    public Set<Class<?>> scan(List<String> packages) {
+        Set<Class<?>> entityClasses = new TreeSet<>(Comparator.comparing(Class::getName));
+        if (packages == null || packages.isEmpty()) {
+            return entityClasses;
+        }
+
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                .forPackages(packages.toArray(String[]::new)));
+
+        for (Class<?> type : reflections.getTypesAnnotatedWith(Table.class)) {
+            if (packages.stream().anyMatch(pkg -> type.getName().startsWith(pkg + "."))) {
+                entityClasses.add(type);
+            }
+        }
+
+        log.info("Found {} entities in {}", entityClasses.size(), packages);
+        return entityClasses;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.nassime.helios.startup;
+
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.util.Identifiers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+public class SchemaValidator {
+    private static final String COLUMNS_QUERY = "SELECT column_name FROM information_schema.columns "
+            + "WHERE table_schema = COALESCE(?, current_schema()) AND table_name = ?";
+
+    public void validate(Connection connection, Collection<EntityMapper<?>> mappers) {
+        List<String> problems = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(COLUMNS_QUERY)) {
+            for (EntityMapper<?> mapper : mappers) {
+                String tableName = mapper.getTableName();
+                // information_schema contient les noms tels que PostgreSQL les a repliés
+                List<String> parts = Identifiers.foldQualified(tableName);
+                statement.setString(1, parts.size() < 2 ? null : parts.get(parts.size() - 2));
+                statement.setString(2, parts.get(parts.size() - 1));
+
+                Set<String> existingColumns = new HashSet<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        existingColumns.add(resultSet.getString(1));
+                    }
+                }
+
+                if (existingColumns.isEmpty()) {
+                    problems.add("table " + tableName + " (" + mapper.getEntityClass().getName() + ") does not exist");
+                    continue;
+                }
+
+                for (String column : mapper.getColumnNames(true)) {
+                    if (!existingColumns.contains(Identifiers.fold(column))) {
+                        problems.add("column " + tableName + "." + column + " ("
+                                + mapper.getEntityClass().getName() + ") does not exist");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new HeliosException("Error while validating the database schema", e);
+        }
+
+        if (!problems.isEmpty()) {
+            throw new HeliosException("Schema validation failed: " + String.join("; ", problems));
+        }
+        log.info("Schema validated for {} entities", mappers.size());
+    }
+}
@@ -0,0 +1,196 @@
+package fr.nassime.helios.transaction;
+
+import fr.nassime.helios.exception.QueryTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A time budget bound to the current thread. Every statement executed while it is active gets the
+ * remaining time as its query timeout, and transactions started under it set
+ * {@code statement_timeout} accordingly. Nested deadlines can only shorten the budget, and
+ * cancelling a deadline cancels the statements running under it, on the server.
+ */
+@Slf4j
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Tracking NOT_TRACKED = () -> {
+    };
+
+    private final long expiresAt;
+    private final boolean bounded;
+    // Portées englobantes : les annuler annule aussi celle-ci
+    private final Deadline[] parents;
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private Deadline(long expiresAt, boolean bounded, Deadline... parents) {
+        this.expiresAt = expiresAt;
+        this.bounded = bounded;
+        this.parents = parents;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * A deadline without time limit, only used to cancel the work running under it.
+     */
+    public static Deadline cancellable() {
+        return new Deadline(0, false);
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the operation with this deadline bound to the current thread, or with the enclosing one
+     * if it expires sooner.
+     */
+    public <T> T run(Supplier<T> operation) {
+        Deadline previous = CURRENT.get();
+        Deadline effective = previous == null ? this : previous.nest(this);
+        CURRENT.set(effective);
+        try {
+            effective.check();
+            return operation.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private Deadline nest(Deadline inner) {
+        long expiry = !bounded ? inner.expiresAt
+                : !inner.bounded ? expiresAt
+                : Math.min(expiresAt, inner.expiresAt);
+        return new Deadline(expiry, bounded || inner.bounded, this, inner);
+    }
+
+    /**
+     * Captures the current deadline, if any, so that work handed to another thread keeps the
+     * caller's budget.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> operation) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? operation : () -> deadline.run(operation);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (expiresAt - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAt >= 0;
+    }
+
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        for (Deadline parent : parents) {
+            if (parent.isCancelled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void check() {
+        if (isCancelled()) {
+            throw new QueryTimeoutException("Operation cancelled");
+        }
+        if (isExpired()) {
+            throw new QueryTimeoutException("Deadline exceeded");
+        }
+    }
+
+    /**
+     * Marks the deadline as cancelled and cancels the statements currently running under it.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.debug("Unable to cancel statement", e);
+            }
+        }
+    }
+
+    /**
+     * Applies the current deadline to a statement about to be executed: fails fast when the budget
+     * is spent, sets the query timeout, and registers the statement for cancellation until the
+     * returned handle is closed.
+     */
+    public static Tracking track(Statement statement) throws SQLException {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return NOT_TRACKED;
+        }
+        deadline.check();
+        if (deadline.isBounded()) {
+            // setQueryTimeout est en secondes : on arrondit au supérieur pour ne jamais couper trop tôt
+            statement.setQueryTimeout((int) Math.max(1, (deadline.remainingMillis() + 999) / 1000));
+        }
+        deadline.register(statement);
+        try {
+            // Une annulation arrivée avant l'enregistrement n'aurait pas vu ce statement
+            deadline.check();
+        } catch (RuntimeException e) {
+            deadline.unregister(statement);
+            throw e;
+        }
+        return () -> deadline.unregister(statement);
+    }
+
+    /**
+     * Converts a failure of a statement executed under a deadline into a {@link QueryTimeoutException}
+     * when the deadline explains it.
+     */
+    public static RuntimeException translate(SQLException e) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && "57014".equals(e.getSQLState())) {
+            return new QueryTimeoutException(deadline.isCancelled() ? "Operation cancelled" : "Deadline exceeded", e);
+        }
+        return null;
+    }
+
+    private void register(Statement statement) {
+        running.add(statement);
+        for (Deadline parent : parents) {
+            parent.register(statement);
+        }
+    }
+
+    private void unregister(Statement statement) {
+        running.remove(statement);
+        for (Deadline parent : parents) {
+            parent.unregister(statement);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Tracking extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,18 +1,29 @@
 package fr.nassime.helios.transaction;
 
 import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.metrics.HeliosInstrumentation;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Slf4j
+@RequiredArgsConstructor
 public class TransactionManager {
+    private final HeliosInstrumentation instrumentation;
+
+    public TransactionManager() {
+        this(HeliosInstrumentation.NOOP);
+    }
 
     public <T> T executeInTransaction(Connection connection, Function<Connection, T> operation) {
         boolean previousAutoCommit = false;
+        boolean committed = false;
+        long start = System.nanoTime();
 
         try {
             previousAutoCommit = connection.getAutoCommit();
@@ -20,10 +31,12 @@ public class TransactionManager {
             if (previousAutoCommit) {
                 connection.setAutoCommit(false);
             }
+            applyDeadline(connection);
 
             T result = operation.apply(connection);
 
             connection.commit();
+            committed = true;
 
             return result;
         } catch (Exception e) {
@@ -34,8 +47,13 @@ public class TransactionManager {
                 log.error("Error canceling fr.nassime.helios.transaction", rollbackEx);
             }
 
+            // Timeouts, diagnostics failures and other Helios errors keep their own type
+            if (e instanceof HeliosException heliosException) {
+                throw heliosException;
+            }
             throw new HeliosException("Error executing fr.nassime.helios.transaction", e);
         } finally {
+            instrumentation.onTransaction(System.nanoTime() - start, committed);
             try {
                 if (previousAutoCommit) {
                     connection.setAutoCommit(true);
@@ -46,6 +64,21 @@ public class TransactionManager {
         }
     }
 
+    // Le serveur coupe lui-même les requêtes qui dépassent le budget restant, à la milliseconde près
+    private static void applyDeadline(Connection connection) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        deadline.check();
+        if (!deadline.isBounded()) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL statement_timeout = " + Math.max(1, deadline.remainingMillis()));
+        }
+    }
+
     public void executeInTransactionWithoutResult(Connection connection, Consumer<Connection> operation) {
         executeInTransaction(connection, conn -> {
             operation.accept(conn);
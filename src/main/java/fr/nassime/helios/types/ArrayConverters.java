@@ -0,0 +1,270 @@
+package fr.nassime.helios.types;
+
+import org.postgresql.PGConnection;
+import org.postgresql.util.PGobject;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PostgreSQL array and {@code jsonb} converters.
+ */
+final class ArrayConverters {
+    private static final Map<Class<?>, String> ELEMENT_TYPES = Map.of(
+            String.class, "text",
+            Long.class, "int8",
+            Integer.class, "int4",
+            Short.class, "int2",
+            Double.class, "float8",
+            Float.class, "float4",
+            Boolean.class, "bool",
+            BigDecimal.class, "numeric",
+            UUID.class, "uuid");
+
+    // PgArray renvoie les éléments selon le type SQL (Integer pour int4, String pour un enum...) :
+    // on les ramène au type déclaré
+    private static final Map<Class<?>, ElementReader> ELEMENT_READERS = Map.ofEntries(
+            Map.entry(String.class, Object::toString),
+            Map.entry(Long.class, value -> ((Number) value).longValue()),
+            Map.entry(Integer.class, value -> Math.toIntExact(((Number) value).longValue())),
+            Map.entry(Short.class, value -> ((Number) value).shortValue()),
+            Map.entry(Double.class, value -> ((Number) value).doubleValue()),
+            Map.entry(Float.class, value -> ((Number) value).floatValue()),
+            Map.entry(BigDecimal.class, value -> new BigDecimal(value.toString())),
+            Map.entry(Boolean.class, value -> (Boolean) value),
+            Map.entry(UUID.class, value -> UUID.fromString(value.toString())),
+            Map.entry(LocalDate.class, value -> ((java.sql.Date) value).toLocalDate()),
+            Map.entry(LocalDateTime.class, value -> ((Timestamp) value).toLocalDateTime()),
+            Map.entry(Instant.class, value -> ((Timestamp) value).toInstant()));
+
+    @FunctionalInterface
+    private interface ElementReader {
+        Object read(Object value) throws SQLException;
+    }
+
+    private ArrayConverters() {
+    }
+
+    /**
+     * Whether array elements can be read as the given type.
+     */
+    static boolean isSupportedElementType(Class<?> type) {
+        return type == null || type == Object.class || type.isEnum() || ELEMENT_READERS.containsKey(type);
+    }
+
+    static TypeConverter<long[]> longArray() {
+        return new BasicConverter<>(Types.ARRAY,
+                (statement, index, value) -> statement.setArray(index,
+                        statement.getConnection().unwrap(PGConnection.class).createArrayOf("int8", value)),
+                (resultSet, index) -> parseLongs(resultSet.getString(index)));
+    }
+
+    static TypeConverter<int[]> intArray() {
+        return new BasicConverter<>(Types.ARRAY,
+                (statement, index, value) -> statement.setArray(index,
+                        statement.getConnection().unwrap(PGConnection.class).createArrayOf("int4", value)),
+                (resultSet, index) -> {
+                    long[] values = parseLongs(resultSet.getString(index));
+                    if (values == null) {
+                        return null;
+                    }
+                    int[] ints = new int[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        ints[i] = Math.toIntExact(values[i]);
+                    }
+                    return ints;
+                });
+    }
+
+    static TypeConverter<Object[]> objectArray(Class<?> componentType) {
+        String elementType = ELEMENT_TYPES.get(componentType);
+        ElementReader reader = elementReader(componentType);
+        return new BasicConverter<>(Types.ARRAY,
+                (statement, index, value) -> bindArray(statement, index, value,
+                        elementType != null ? elementType : inferElementType(value)),
+                (resultSet, index) -> {
+                    Object[] values = readArray(resultSet, index);
+                    if (values == null || componentType == Object.class) {
+                        return values;
+                    }
+                    Object[] typed = (Object[]) java.lang.reflect.Array.newInstance(componentType, values.length);
+                    for (int i = 0; i < values.length; i++) {
+                        typed[i] = readElement(values[i], componentType, reader);
+                    }
+                    return typed;
+                });
+    }
+
+    static TypeConverter<Collection<?>> collection(Class<?> elementClass, boolean set) {
+        String elementType = elementClass != null ? ELEMENT_TYPES.get(elementClass) : null;
+        ElementReader reader = elementReader(elementClass);
+        return new BasicConverter<>(Types.ARRAY,
+                (statement, index, value) -> {
+                    Object[] values = value.toArray();
+                    bindArray(statement, index, values, elementType != null ? elementType : inferElementType(values));
+                },
+                (resultSet, index) -> {
+                    Object[] values = readArray(resultSet, index);
+                    if (values == null) {
+                        return null;
+                    }
+                    if (elementClass == null || elementClass == Object.class) {
+                        return set ? new LinkedHashSet<>(Arrays.asList(values)) : new ArrayList<>(Arrays.asList(values));
+                    }
+                    Collection<Object> elements = set ? new LinkedHashSet<>() : new ArrayList<>(values.length);
+                    for (Object value : values) {
+                        elements.add(readElement(value, elementClass, reader));
+                    }
+                    return elements;
+                });
+    }
+
+    static TypeConverter<Jsonb> jsonb() {
+        return new BasicConverter<>(Types.OTHER,
+                (statement, index, value) -> {
+                    PGobject json = new PGobject();
+                    json.setType("jsonb");
+                    json.setValue(value.getJson());
+                    statement.setObject(index, json);
+                },
+                (resultSet, index) -> Jsonb.of(resultSet.getString(index)));
+    }
+
+    private static void bindArray(PreparedStatement statement, int index, Object[] values, String elementType)
+            throws SQLException {
+        if (elementType == null) {
+            // Tableau vide ou de type inconnu : le serveur déduit le type depuis le contexte (ex: = ANY(?))
+            statement.setObject(index, values.length == 0 ? "{}" : toArrayLiteral(values), Types.OTHER);
+        } else {
+            statement.setArray(index, statement.getConnection().createArrayOf(elementType, values));
+        }
+    }
+
+    private static Object[] readArray(ResultSet resultSet, int index) throws SQLException {
+        Array array = resultSet.getArray(index);
+        if (array == null) {
+            return null;
+        }
+        try {
+            return (Object[]) array.getArray();
+        } finally {
+            array.free();
+        }
+    }
+
+    private static ElementReader elementReader(Class<?> type) {
+        if (type != null && type.isEnum()) {
+            // Résolu à la lecture : ce convertisseur peut être créé pendant une résolution de TypeConverters
+            return value -> enumValue(type, value);
+        }
+        return type != null ? ELEMENT_READERS.get(type) : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, Object value) throws SQLException {
+        if (TypeConverters.forType(type) instanceof EnumConverter<?> converter) {
+            return converter.fromValue(value);
+        }
+        // Même repli que EnumConverter.labelOf pour un convertisseur enregistré à la main
+        return Enum.valueOf((Class) type, value.toString());
+    }
+
+    private static Object readElement(Object value, Class<?> type, ElementReader reader) throws SQLException {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        if (reader != null) {
+            try {
+                return reader.read(value);
+            } catch (ClassCastException | IllegalArgumentException | ArithmeticException e) {
+                throw new SQLException("Cannot read array element " + value + " as " + type.getName(), e);
+            }
+        }
+        throw new SQLException("Cannot read array element " + value + " as " + type.getName());
+    }
+
+    private static String inferElementType(Object[] values) {
+        for (Object value : values) {
+            if (value != null) {
+                return ELEMENT_TYPES.get(value.getClass());
+            }
+        }
+        return null;
+    }
+
+    private static String toArrayLiteral(Object[] values) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            if (values[i] == null) {
+                literal.append("NULL");
+            } else {
+                String text = values[i] instanceof Enum<?> constant ? EnumConverter.labelOf(constant) : values[i].toString();
+                literal.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+        }
+        return literal.append('}').toString();
+    }
+
+    // Lit directement la forme texte "{1,2,3}" pour éviter le Long[] intermédiaire de PgArray
+    static long[] parseLongs(String text) throws SQLException {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        if (length < 2 || text.charAt(0) != '{' || text.charAt(length - 1) != '}') {
+            throw new SQLException("Not a one-dimensional integer array: " + text);
+        }
+        if (length == 2) {
+            return new long[0];
+        }
+
+        int count = 1;
+        for (int i = 1; i < length - 1; i++) {
+            if (text.charAt(i) == ',') {
+                count++;
+            }
+        }
+
+        long[] values = new long[count];
+        int position = 1;
+        for (int v = 0; v < count; v++) {
+            boolean negative = text.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long value = 0;
+            int start = position;
+            char c;
+            while ((c = text.charAt(position)) != ',' && c != '}') {
+                if (c < '0' || c > '9') {
+                    throw new SQLException("Cannot read array element as a primitive integer: " + text);
+                }
+                value = value * 10 + (c - '0');
+                position++;
+            }
+            if (position == start) {
+                throw new SQLException("Empty array element: " + text);
+            }
+            values[v] = negative ? -value : value;
+            position++;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,42 @@
+package fr.nassime.helios.types;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+class BasicConverter<T> implements TypeConverter<T> {
+    private final int sqlType;
+    private final Binder<T> binder;
+    private final Reader<T> reader;
+
+    BasicConverter(int sqlType, Binder<T> binder, Reader<T> reader) {
+        this.sqlType = sqlType;
+        this.binder = binder;
+        this.reader = reader;
+    }
+
+    @Override
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, T value) throws SQLException {
+        binder.bind(statement, index, value);
+    }
+
+    @Override
+    public T read(ResultSet resultSet, int index) throws SQLException {
+        return reader.read(resultSet, index);
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, int index, T value) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ResultSet resultSet, int index) throws SQLException;
+    }
+}
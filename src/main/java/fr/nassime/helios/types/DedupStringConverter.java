@@ -0,0 +1,44 @@
+package fr.nassime.helios.types;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Reads a low-cardinality {@code text} column through a small direct-mapped cache, so that the rows
+ * of a large result share one {@code String} instance per distinct value instead of keeping one
+ * copy per row. Slots are overwritten on collision; races only cost a cache miss, since strings
+ * are immutable.
+ */
+class DedupStringConverter implements TypeConverter<String> {
+    private static final int SIZE = 64;
+
+    private final String[] cache = new String[SIZE];
+
+    @Override
+    public int getSqlType() {
+        return Types.VARCHAR;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, String value) throws SQLException {
+        statement.setString(index, value);
+    }
+
+    @Override
+    public String read(ResultSet resultSet, int index) throws SQLException {
+        String value = resultSet.getString(index);
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        String cached = cache[slot];
+        if (value.equals(cached)) {
+            return cached;
+        }
+        cache[slot] = value;
+        return value;
+    }
+}
@@ -0,0 +1,93 @@
+package fr.nassime.helios.types;
+
+import fr.nassime.helios.annotation.EnumValue;
+import fr.nassime.helios.exception.HeliosException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds enums by label with an unspecified type, so the same value works for {@code text} columns
+ * and PostgreSQL enum types. The label is the constant name unless overridden with
+ * {@link EnumValue}. Numeric columns are read back as ordinals. Both lookup tables are built once
+ * per enum type.
+ */
+public class EnumConverter<E extends Enum<E>> implements TypeConverter<E> {
+    private final Class<E> enumType;
+    private final E[] constants;
+    private final String[] labels;
+    private final Map<String, E> constantsByLabel = new HashMap<>();
+
+    public EnumConverter(Class<E> enumType) {
+        this.enumType = enumType;
+        this.constants = enumType.getEnumConstants();
+        this.labels = new String[constants.length];
+        for (E constant : constants) {
+            String label = label(enumType, constant);
+            labels[constant.ordinal()] = label;
+            if (constantsByLabel.put(label, constant) != null) {
+                throw new HeliosException("Duplicate label " + label + " in enum " + enumType.getName());
+            }
+        }
+    }
+
+    private static String label(Class<?> enumType, Enum<?> constant) {
+        try {
+            EnumValue value = enumType.getField(constant.name()).getAnnotation(EnumValue.class);
+            return value != null ? value.value() : constant.name();
+        } catch (NoSuchFieldException e) {
+            throw new HeliosException("Enum constant " + constant.name() + " not found in " + enumType.getName(), e);
+        }
+    }
+
+    /**
+     * The database label of any enum constant.
+     */
+    public static String labelOf(Enum<?> constant) {
+        // Un convertisseur enregistré à la main pour cet enum garde la main : on retombe sur le nom
+        if (TypeConverters.forType(constant.getDeclaringClass()) instanceof EnumConverter<?> converter) {
+            return converter.labels[constant.ordinal()];
+        }
+        return constant.name();
+    }
+
+    @Override
+    public int getSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, E value) throws SQLException {
+        statement.setObject(index, labels[value.ordinal()], Types.OTHER);
+    }
+
+    @Override
+    public E read(ResultSet resultSet, int index) throws SQLException {
+        return fromValue(resultSet.getObject(index));
+    }
+
+    /**
+     * Converts a value read from the database, a label or an ordinal, to its constant.
+     */
+    E fromValue(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Number number) {
+            int ordinal = number.intValue();
+            if (ordinal < 0 || ordinal >= constants.length) {
+                throw new SQLException("Unknown " + enumType.getName() + " ordinal: " + ordinal);
+            }
+            return constants[ordinal];
+        }
+
+        E constant = constantsByLabel.get(value.toString());
+        if (constant == null) {
+            throw new SQLException("Unknown " + enumType.getName() + " value: " + value);
+        }
+        return constant;
+    }
+}
@@ -0,0 +1,12 @@
+package fr.nassime.helios.types;
+
+/**
+ * Bridges {@link Jsonb} to a JSON library. Helios does not ship one: register an implementation with
+ * {@link Jsonb#useCodec(JsonCodec)} or through {@code META-INF/services}.
+ */
+public interface JsonCodec {
+
+    <T> T decode(String json, Class<T> type);
+
+    String encode(Object value);
+}
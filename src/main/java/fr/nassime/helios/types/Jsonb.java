@@ -0,0 +1,79 @@
+package fr.nassime.helios.types;
+
+import fr.nassime.helios.exception.HeliosException;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.ServiceLoader;
+
+/**
+ * A {@code jsonb} value that is kept as raw text when read and only parsed on first access, so rows
+ * whose payload is never looked at cost a single string. Values built with {@link #valueOf(Object)}
+ * are likewise only encoded when bound.
+ */
+public final class Jsonb {
+    private static volatile JsonCodec codec = loadCodec();
+
+    private String json;
+    private Object value;
+
+    private Jsonb(String json, Object value) {
+        this.json = json;
+        this.value = value;
+    }
+
+    public static Jsonb of(String json) {
+        return json == null ? null : new Jsonb(json, null);
+    }
+
+    public static Jsonb valueOf(Object value) {
+        return value == null ? null : new Jsonb(null, value);
+    }
+
+    public static void useCodec(JsonCodec jsonCodec) {
+        codec = jsonCodec;
+    }
+
+    public synchronized String getJson() {
+        if (json == null) {
+            json = codec().encode(value);
+        }
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T as(Class<T> type) {
+        if (!type.isInstance(value)) {
+            value = codec().decode(getJson(), type);
+        }
+        return (T) value;
+    }
+
+    private static JsonCodec codec() {
+        JsonCodec current = codec;
+        if (current == null) {
+            throw new HeliosException("No JsonCodec registered, call Jsonb.useCodec(...) first");
+        }
+        return current;
+    }
+
+    private static JsonCodec loadCodec() {
+        Iterator<JsonCodec> codecs = ServiceLoader.load(JsonCodec.class, Jsonb.class.getClassLoader()).iterator();
+        return codecs.hasNext() ? codecs.next() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Jsonb other && Objects.equals(getJson(), other.getJson());
+    }
+
+    @Override
+    public int hashCode() {
+        return getJson().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getJson();
+    }
+}
@@ -0,0 +1,28 @@
+package fr.nassime.helios.types;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A {@code null} parameter that still carries its SQL type, so that PostgreSQL does not have to
+ * infer it and can reuse the statement's plan.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class SqlNull {
+    private final int sqlType;
+
+    private SqlNull(int sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    public static SqlNull of(int sqlType) {
+        return new SqlNull(sqlType);
+    }
+
+    public static SqlNull of(Class<?> type) {
+        return new SqlNull(TypeConverters.forType(type).getSqlType());
+    }
+}
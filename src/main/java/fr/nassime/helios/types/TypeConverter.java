@@ -0,0 +1,25 @@
+package fr.nassime.helios.types;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Binds and reads one Java type. Converters are resolved once per column or parameter type through
+ * {@link TypeConverters}, so implementations should use the most specific JDBC accessor available.
+ */
+public interface TypeConverter<T> {
+
+    /**
+     * The {@link java.sql.Types} code used to bind a {@code null} of this type.
+     */
+    int getSqlType();
+
+    void bind(PreparedStatement statement, int index, T value) throws SQLException;
+
+    /**
+     * Reads the column, returning {@code null} for SQL {@code NULL} (or the default value for
+     * primitive types).
+     */
+    T read(ResultSet resultSet, int index) throws SQLException;
+}
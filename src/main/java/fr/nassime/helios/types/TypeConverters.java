@@ -0,0 +1,185 @@
+package fr.nassime.helios.types;
+
+import fr.nassime.helios.annotation.Column;
+import fr.nassime.helios.exception.HeliosException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link TypeConverter}s keyed by Java type. Lookups are cached per class, so callers
+ * resolve a converter once per column and then bind or read without any type dispatch.
+ */
+public final class TypeConverters {
+    private static final Map<Class<?>, TypeConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    private static final TypeConverter<Object> OBJECT = new BasicConverter<>(Types.OTHER,
+            PreparedStatement::setObject, ResultSet::getObject);
+
+    static {
+        register(String.class, new BasicConverter<>(Types.VARCHAR,
+                PreparedStatement::setString, ResultSet::getString));
+
+        register(Long.class, new BasicConverter<>(Types.BIGINT, PreparedStatement::setLong,
+                (rs, i) -> nullable(rs, rs.getLong(i))));
+        register(long.class, new BasicConverter<>(Types.BIGINT, PreparedStatement::setLong, ResultSet::getLong));
+        register(Integer.class, new BasicConverter<>(Types.INTEGER, PreparedStatement::setInt,
+                (rs, i) -> nullable(rs, rs.getInt(i))));
+        register(int.class, new BasicConverter<>(Types.INTEGER, PreparedStatement::setInt, ResultSet::getInt));
+        register(Short.class, new BasicConverter<>(Types.SMALLINT, PreparedStatement::setShort,
+                (rs, i) -> nullable(rs, rs.getShort(i))));
+        register(short.class, new BasicConverter<>(Types.SMALLINT, PreparedStatement::setShort, ResultSet::getShort));
+        register(Byte.class, new BasicConverter<>(Types.SMALLINT, PreparedStatement::setByte,
+                (rs, i) -> nullable(rs, rs.getByte(i))));
+        register(byte.class, new BasicConverter<>(Types.SMALLINT, PreparedStatement::setByte, ResultSet::getByte));
+        register(Boolean.class, new BasicConverter<>(Types.BOOLEAN, PreparedStatement::setBoolean,
+                (rs, i) -> nullable(rs, rs.getBoolean(i))));
+        register(boolean.class, new BasicConverter<>(Types.BOOLEAN, PreparedStatement::setBoolean, ResultSet::getBoolean));
+        register(Double.class, new BasicConverter<>(Types.DOUBLE, PreparedStatement::setDouble,
+                (rs, i) -> nullable(rs, rs.getDouble(i))));
+        register(double.class, new BasicConverter<>(Types.DOUBLE, PreparedStatement::setDouble, ResultSet::getDouble));
+        register(Float.class, new BasicConverter<>(Types.REAL, PreparedStatement::setFloat,
+                (rs, i) -> nullable(rs, rs.getFloat(i))));
+        register(float.class, new BasicConverter<>(Types.REAL, PreparedStatement::setFloat, ResultSet::getFloat));
+
+        register(BigDecimal.class, new BasicConverter<>(Types.NUMERIC,
+                PreparedStatement::setBigDecimal, ResultSet::getBigDecimal));
+        register(byte[].class, new BasicConverter<>(Types.BINARY,
+                PreparedStatement::setBytes, ResultSet::getBytes));
+        register(UUID.class, objectConverter(Types.OTHER, UUID.class));
+        register(LocalDate.class, objectConverter(Types.DATE, LocalDate.class));
+        register(LocalDateTime.class, objectConverter(Types.TIMESTAMP, LocalDateTime.class));
+        register(LocalTime.class, objectConverter(Types.TIME, LocalTime.class));
+        register(OffsetDateTime.class, objectConverter(Types.TIMESTAMP_WITH_TIMEZONE, OffsetDateTime.class));
+        register(Instant.class, new BasicConverter<>(Types.TIMESTAMP_WITH_TIMEZONE,
+                (statement, index, value) -> statement.setObject(index, value.atOffset(ZoneOffset.UTC)),
+                (rs, i) -> {
+                    OffsetDateTime value = rs.getObject(i, OffsetDateTime.class);
+                    return value == null ? null : value.toInstant();
+                }));
+
+        register(long[].class, ArrayConverters.longArray());
+        register(int[].class, ArrayConverters.intArray());
+        register(Jsonb.class, ArrayConverters.jsonb());
+    }
+
+    private TypeConverters() {
+    }
+
+    public static <T> void register(Class<T> type, TypeConverter<? super T> converter) {
+        CONVERTERS.put(type, converter);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> TypeConverter<T> forType(Class<T> type) {
+        TypeConverter<?> converter = CONVERTERS.get(type);
+        if (converter != null) {
+            return (TypeConverter<T>) converter;
+        }
+
+        return (TypeConverter<T>) CONVERTERS.computeIfAbsent(type, key -> {
+            if (Enum.class.isAssignableFrom(key)) {
+                // Constantes avec corps : la classe réelle est une sous-classe anonyme de l'enum
+                return new EnumConverter(key.isEnum() ? key : key.getSuperclass());
+            }
+            if (key.isArray() && !key.getComponentType().isPrimitive()) {
+                return ArrayConverters.objectArray(key.getComponentType());
+            }
+            if (Collection.class.isAssignableFrom(key)) {
+                return ArrayConverters.collection(null, Set.class.isAssignableFrom(key));
+            }
+            // Sous-classes (ex: java.sql.Timestamp) : on remonte la hiérarchie avant de tomber sur setObject
+            for (Class<?> parent = key.getSuperclass(); parent != null && parent != Object.class;
+                 parent = parent.getSuperclass()) {
+                TypeConverter<?> inherited = CONVERTERS.get(parent);
+                if (inherited != null) {
+                    return inherited;
+                }
+            }
+            return OBJECT;
+        });
+    }
+
+    /**
+     * Resolves the converter of an entity field, using its generic type when the field is a
+     * collection so that {@code List<String>} maps to {@code text[]}, {@code List<Long>} to
+     * {@code int8[]} and so on. {@code @Column(lowCardinality = true)} strings get their own
+     * deduplicating converter.
+     */
+    public static TypeConverter<?> forField(Field field) {
+        Class<?> type = field.getType();
+        Column column = field.getAnnotation(Column.class);
+        if (type == String.class && column != null && column.lowCardinality()) {
+            // Un cache par colonne : les valeurs d'une colonne de statut ne polluent pas celui d'une autre
+            return new DedupStringConverter();
+        }
+        if (!Collection.class.isAssignableFrom(type)) {
+            if (type.isArray() && !type.getComponentType().isPrimitive()) {
+                checkElementType(field, type.getComponentType());
+            }
+            return forType(type);
+        }
+
+        Class<?> elementClass = null;
+        if (field.getGenericType() instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> argument) {
+            elementClass = argument;
+        }
+        checkElementType(field, elementClass);
+        return ArrayConverters.collection(elementClass, Set.class.isAssignableFrom(type));
+    }
+
+    private static void checkElementType(Field field, Class<?> elementClass) {
+        if (!ArrayConverters.isSupportedElementType(elementClass)) {
+            throw new HeliosException("Unsupported array element type " + elementClass.getName() + " for field "
+                    + field.getDeclaringClass().getName() + "." + field.getName());
+        }
+    }
+
+    public static TypeConverter<?> forField(Class<?> owner, String fieldName) {
+        try {
+            return forField(owner.getDeclaredField(fieldName));
+        } catch (NoSuchFieldException e) {
+            throw new HeliosException("Unknown field " + fieldName + " in class " + owner.getName(), e);
+        }
+    }
+
+    /**
+     * Binds a parameter with the converter of its runtime type. {@link SqlNull} markers are bound as
+     * typed nulls; a bare {@code null} has no type to bind and leaves inference to the server.
+     */
+    @SuppressWarnings("unchecked")
+    public static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (value instanceof SqlNull sqlNull) {
+            statement.setNull(index, sqlNull.getSqlType());
+        } else {
+            ((TypeConverter<Object>) forType(value.getClass())).bind(statement, index, value);
+        }
+    }
+
+    private static <T> TypeConverter<T> objectConverter(int sqlType, Class<T> type) {
+        return new BasicConverter<>(sqlType, PreparedStatement::setObject, (rs, i) -> rs.getObject(i, type));
+    }
+
+    private static <T> T nullable(ResultSet resultSet, T value) throws SQLException {
+        return resultSet.wasNull() ? null : value;
+    }
+}
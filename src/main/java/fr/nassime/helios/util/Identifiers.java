@@ -0,0 +1,39 @@
+package fr.nassime.helios.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PostgreSQL identifier folding: unquoted identifiers are folded to lower case, quoted ones keep
+ * their case and lose their quotes, as in the catalogs.
+ */
+public class Identifiers {
+
+    public static String fold(String identifier) {
+        if (identifier.length() >= 2 && identifier.startsWith("\"") && identifier.endsWith("\"")) {
+            return identifier.substring(1, identifier.length() - 1).replace("\"\"", "\"");
+        }
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits a possibly schema-qualified name on the dots outside quotes and folds each part.
+     */
+    public static List<String> foldQualified(String name) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '.' && !quoted) {
+                parts.add(fold(name.substring(start, i)));
+                start = i + 1;
+            }
+        }
+        parts.add(fold(name.substring(start)));
+        return parts;
+    }
+}
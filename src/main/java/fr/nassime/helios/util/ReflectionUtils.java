@@ -49,6 +49,16 @@ public class ReflectionUtils {
                 .orElseThrow(() -> new HeliosException("Entity class " + etityClass.getName() + " does not have an @Id field"));
     }
 
+    public static Field getField(Class<?> entityClass, String name) {
+        try {
+            Field field = entityClass.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new HeliosException("Field " + name + " not found in " + entityClass.getName(), e);
+        }
+    }
+
     public static String getColumnName(Field field) {
         if (field.isAnnotationPresent(Column.class)) {
             Column column = field.getAnnotation(Column.class);
@@ -68,6 +78,21 @@ public class ReflectionUtils {
         return columnFieldMap;
     }
 
+    public static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return Void.class;
+    }
+
     public static <T> T newInstance(Class<T> entityClass) {
         try {
             return entityClass.getDeclaredConstructor().newInstance();
@@ -0,0 +1,68 @@
+package fr.nassime.helios.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe map from objects, compared by identity, to values that disappear with their key.
+ * Used to attach state to entities without touching their fields, or relying on an
+ * {@code equals} that may depend on mutable columns.
+ */
+public class WeakIdentityMap<K, V> {
+    private final Map<Key, V> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    public V get(K key) {
+        expunge();
+        return entries.get(new Key(key, null));
+    }
+
+    public void put(K key, V value) {
+        expunge();
+        entries.put(new Key(key, collected), value);
+    }
+
+    public V remove(K key) {
+        expunge();
+        return entries.remove(new Key(key, null));
+    }
+
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            entries.remove(reference);
+        }
+    }
+
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        Key(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            // Une clé collectée n'est plus égale qu'à elle-même
+            Object referent = get();
+            return other instanceof Key key && referent != null && referent == key.get();
+        }
+    }
+}
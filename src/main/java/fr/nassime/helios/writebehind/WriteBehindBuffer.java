@@ -0,0 +1,208 @@
+package fr.nassime.helios.writebehind;
+
+import fr.nassime.helios.HeliosORM;
+import fr.nassime.helios.exception.HeliosException;
+import fr.nassime.helios.mapping.EntityMapper;
+import fr.nassime.helios.query.UpdateBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers updates of one entity type. Each update snapshots the entity's column values, and a later
+ * update of the same id replaces the earlier one, so a hot row is written once per flush whatever the
+ * number of modifications. Flushes run as a single JDBC batch in a transaction of their own, never in
+ * the caller's.
+ */
+@Slf4j
+public class WriteBehindBuffer<T> {
+    private final HeliosORM orm;
+    private final EntityMapper<T> mapper;
+    @Getter
+    private final WriteBehindConfig config;
+    private final Executor flushExecutor;
+
+    private final Object lock = new Object();
+    private Map<Object, Map<String, Object>> pending = new LinkedHashMap<>();
+    // Échecs consécutifs par id, remis à zéro par une modification plus récente
+    private final Map<Object, Integer> attempts = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    WriteBehindBuffer(HeliosORM orm, EntityMapper<T> mapper, WriteBehindConfig config, Executor flushExecutor) {
+        this.orm = orm;
+        this.mapper = mapper;
+        this.config = config;
+        this.flushExecutor = flushExecutor;
+    }
+
+    public void enqueue(T entity) {
+        Object id = mapper.getIdValue(entity);
+        if (id == null) {
+            throw new HeliosException("Write-behind only buffers updates of persisted entities");
+        }
+        Map<String, Object> values = mapper.toBindValues(entity, true);
+        values.remove(mapper.getIdColumnName());
+
+        int size;
+        synchronized (lock) {
+            pending.put(id, values);
+            attempts.remove(id);
+            size = pending.size();
+        }
+
+        if (size >= config.getMaxPending()) {
+            // Backpressure : l'appelant paie le flush lui-même
+            flush();
+        } else if (size >= config.getFlushSize() && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    public void discard(Object id) {
+        synchronized (lock) {
+            pending.remove(id);
+            attempts.remove(id);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush of {} failed, changes kept for the next attempt",
+                    mapper.getEntityClass().getName(), e);
+        }
+    }
+
+    /**
+     * Writes every pending update. Flushes are serialized so an older snapshot can never overwrite a
+     * newer one; on failure the rows that were not modified in the meantime are put back, until they
+     * have failed {@link WriteBehindConfig#getMaxAttempts()} times. Updates of rows that no longer
+     * exist are dropped.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Object, Map<String, Object>> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            List<Object> missing;
+            try {
+                missing = write(batch);
+            } catch (RuntimeException e) {
+                List<Object> dropped = new ArrayList<>();
+                synchronized (lock) {
+                    Map<Object, Map<String, Object>> newer = pending;
+                    pending = new LinkedHashMap<>();
+                    batch.forEach((id, values) -> {
+                        if (newer.containsKey(id)) {
+                            return;
+                        }
+                        if (attempts.merge(id, 1, Integer::sum) >= config.getMaxAttempts()) {
+                            attempts.remove(id);
+                            dropped.add(id);
+                        } else {
+                            pending.put(id, values);
+                        }
+                    });
+                    pending.putAll(newer);
+                }
+                drop(dropped, e);
+                throw e;
+            }
+
+            synchronized (lock) {
+                if (!attempts.isEmpty()) {
+                    attempts.keySet().removeAll(batch.keySet());
+                }
+            }
+            if (!missing.isEmpty()) {
+                drop(missing, new HeliosException("No rows affected during write-behind update of "
+                        + mapper.getTableName()));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drop(List<Object> ids, Exception cause) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        log.error("Dropped {} buffered updates of {}: {}", ids.size(), mapper.getEntityClass().getName(), ids, cause);
+        WriteBehindFailureHandler handler = config.getFailureHandler();
+        if (handler != null) {
+            try {
+                handler.onDropped(mapper.getEntityClass(), ids, cause);
+            } catch (RuntimeException e) {
+                log.warn("Write-behind failure handler failed", e);
+            }
+        }
+    }
+
+    // Renvoie les ids dont la ligne n'existe plus
+    private List<Object> write(Map<Object, Map<String, Object>> batch) {
+        String tableName = mapper.getTableName();
+        String idColumn = mapper.getIdColumnName();
+
+        int chunkSize = Math.max(1, config.getFlushSize());
+        List<Object> ids = new ArrayList<>(batch.keySet());
+        List<Object> missing = new ArrayList<>();
+
+        // Jamais dans la transaction de l'appelant : son rollback ferait perdre tout le lot sans relance
+        orm.executeInNewTransaction(connection -> {
+            for (int start = 0; start < ids.size(); start += chunkSize) {
+                List<Object> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+                List<UpdateBuilder> updates = new ArrayList<>(chunk.size());
+                for (Object id : chunk) {
+                    updates.add(UpdateBuilder.create()
+                            .table(tableName)
+                            .set(batch.get(id))
+                            .where(Collections.singletonMap(idColumn, id)));
+                }
+
+                try {
+                    int[] counts = orm.getQueryExecutor().batch(connection, updates);
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            missing.add(chunk.get(i));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new HeliosException("Error during write-behind flush of " + tableName, e);
+                }
+            }
+            orm.getInvalidationBus().publishAll(connection, tableName, ids);
+            return null;
+        });
+
+        log.debug("Flushed {} buffered updates to {}", ids.size() - missing.size(), tableName);
+        return missing;
+    }
+}
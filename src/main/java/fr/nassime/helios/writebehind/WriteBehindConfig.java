@@ -0,0 +1,35 @@
+package fr.nassime.helios.writebehind;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WriteBehindConfig {
+    /**
+     * Number of distinct pending rows that triggers an asynchronous flush.
+     */
+    @Builder.Default
+    private int flushSize = 500;
+    /**
+     * Maximum time, in milliseconds, a modification stays in memory.
+     */
+    @Builder.Default
+    private long flushInterval = 100;
+    /**
+     * Hard bound on pending rows. Once reached, callers flush synchronously, which slows writers
+     * down to the database's pace instead of growing the buffer.
+     */
+    @Builder.Default
+    private int maxPending = 10000;
+    /**
+     * Number of failed flushes after which a row is dropped instead of being put back. A newer
+     * update of the row starts over.
+     */
+    @Builder.Default
+    private int maxAttempts = 10;
+    /**
+     * Notified of dropped rows, in addition to the error log. Optional.
+     */
+    private WriteBehindFailureHandler failureHandler;
+}
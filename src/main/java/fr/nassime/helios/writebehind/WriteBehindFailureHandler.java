@@ -0,0 +1,12 @@
+package fr.nassime.helios.writebehind;
+
+import java.util.List;
+
+public interface WriteBehindFailureHandler {
+
+    /**
+     * Called, outside of any lock, with the ids whose buffered update was given up: rows that no
+     * longer exist, or rows whose flush kept failing.
+     */
+    void onDropped(Class<?> entityClass, List<Object> ids, Exception cause);
+}
@@ -0,0 +1,68 @@
+package fr.nassime.helios.writebehind;
+
+import fr.nassime.helios.HeliosORM;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the write-behind buffers of an ORM and the single daemon thread flushing them on time.
+ */
+@Slf4j
+public class WriteBehindManager implements AutoCloseable {
+    private final HeliosORM orm;
+    private final Map<Class<?>, WriteBehindBuffer<?>> buffers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ScheduledFuture<?>> schedules = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public WriteBehindManager(HeliosORM orm) {
+        this.orm = orm;
+    }
+
+    public synchronized <T> WriteBehindBuffer<T> enable(Class<T> entityClass, WriteBehindConfig config) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "helios-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        WriteBehindBuffer<T> buffer = new WriteBehindBuffer<>(orm, orm.getEntityMapper(entityClass), config, scheduler);
+        WriteBehindBuffer<?> previous = buffers.put(entityClass, buffer);
+        if (previous != null) {
+            schedules.remove(entityClass).cancel(false);
+            previous.flush();
+        }
+        schedules.put(entityClass, scheduler.scheduleWithFixedDelay(buffer::flushQuietly,
+                config.getFlushInterval(), config.getFlushInterval(), TimeUnit.MILLISECONDS));
+        log.info("Write-behind enabled for {}", entityClass.getName());
+        return buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> WriteBehindBuffer<T> get(Class<T> entityClass) {
+        return buffers.isEmpty() ? null : (WriteBehindBuffer<T>) buffers.get(entityClass);
+    }
+
+    public void flushAll() {
+        buffers.values().forEach(WriteBehindBuffer::flush);
+    }
+
+    @Override
+    public synchronized void close() {
+        schedules.values().forEach(schedule -> schedule.cancel(false));
+        schedules.clear();
+        for (WriteBehindBuffer<?> buffer : buffers.values()) {
+            buffer.flushQuietly();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}